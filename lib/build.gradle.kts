@@ -8,14 +8,42 @@ tasks.compileJava {
     options.release = 17
 }
 
+// the SIMD suffix decoder, which depends on the jdk.incubator.vector module. it's shipped in the
+// multi-release layer of the jar, so the base classes don't reference any incubator API and it's
+// only used if the module is resolved at runtime (--add-modules jdk.incubator.vector)
+val vector: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+}
+
+tasks.named<JavaCompile>(vector.compileJavaTaskName) {
+    options.release = 17
+    options.compilerArgs.addAll(listOf("--add-modules", "jdk.incubator.vector"))
+}
+
+tasks.jar {
+    into("META-INF/versions/17") {
+        from(vector.output)
+    }
+    manifest {
+        attributes("Multi-Release" to "true")
+    }
+}
+
 dependencies {
-    implementation(libs.java.uuid.generator)
+    // only used as a baseline in the benchmarks
+    jmh(libs.java.uuid.generator)
+    testRuntimeOnly(vector.output)
+    jmh(vector.output)
+}
+
+tasks.test {
+    jvmArgs("--add-modules", "jdk.incubator.vector")
 }
 
 jmh {
     warmupIterations.set(3)
     iterations.set(2)
-    threads.set(1)
     fork.set(1)
+    jvmArgsAppend.add("--add-modules=jdk.incubator.vector")
     //includes.set(listOf("TypeIdBench.parseWithError*"))
 }
@@ -0,0 +1,63 @@
+package de.fxlae.typeid;
+
+import com.fasterxml.uuid.Generators;
+import com.fasterxml.uuid.impl.TimeBasedEpochGenerator;
+import de.fxlae.typeid.lib.UuidV7Generator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the scaling of UUIDv7 generation from 1 to N threads, all threads sharing one generator.
+ * The synchronized generator of java-uuid-generator serves as the baseline.
+ */
+public class GeneratorBench {
+
+    @Benchmark
+    @Threads(1)
+    public void uuidV7Generator1Thread(Blackhole bh, SharedGenerators generators) {
+        bh.consume(generators.uuidV7Generator.generate());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void uuidV7Generator4Threads(Blackhole bh, SharedGenerators generators) {
+        bh.consume(generators.uuidV7Generator.generate());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void uuidV7GeneratorMaxThreads(Blackhole bh, SharedGenerators generators) {
+        bh.consume(generators.uuidV7Generator.generate());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void jug1Thread(Blackhole bh, SharedGenerators generators) {
+        bh.consume(generators.jug.generate());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void jug4Threads(Blackhole bh, SharedGenerators generators) {
+        bh.consume(generators.jug.generate());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void jugMaxThreads(Blackhole bh, SharedGenerators generators) {
+        bh.consume(generators.jug.generate());
+    }
+
+    @State(Scope.Benchmark)
+    public static class SharedGenerators {
+
+        UuidV7Generator uuidV7Generator;
+        TimeBasedEpochGenerator jug;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            uuidV7Generator = new UuidV7Generator();
+            jug = Generators.timeBasedEpochGenerator();
+        }
+    }
+}
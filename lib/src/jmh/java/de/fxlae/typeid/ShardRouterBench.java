@@ -0,0 +1,37 @@
+package de.fxlae.typeid;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares routing with the {@link ShardRouter} with hashing the textual representation.
+ */
+public class ShardRouterBench {
+
+    @Benchmark
+    public int stringHashCode(Inputs inputs) {
+        return Math.floorMod(inputs.typeId.toString().hashCode(), 64);
+    }
+
+    @Benchmark
+    public int jumpFromTypeId(Inputs inputs) {
+        return inputs.jump.shard(inputs.typeId);
+    }
+
+    @Benchmark
+    public int jumpFromText(Inputs inputs) {
+        return inputs.jump.shard(inputs.text);
+    }
+
+    @Benchmark
+    public int rendezvousFromTypeId(Inputs inputs) {
+        return inputs.rendezvous.shard(inputs.typeId);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Inputs {
+        final ShardRouter jump = ShardRouter.jump(64);
+        final ShardRouter rendezvous = ShardRouter.rendezvous(1, 2, 3, 4, 5, 6, 7, 8);
+        final TypeId typeId = TypeId.generate("prefix");
+        final String text = typeId.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package de.fxlae.typeid;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Measures the encoding and lazy decoding of sorted TypeID sequences.
+ */
+public class SortedTypeIdCodecBench {
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public byte[] encode(Inputs inputs) {
+        return SortedTypeIdCodec.encode("prefix", inputs.msbs, inputs.lsbs, 0, inputs.msbs.length);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public int encodeWithEncoder(Inputs inputs) throws IOException {
+        var out = inputs.out.clear();
+        try (var encoder = SortedTypeIdCodec.encoder(out, "prefix")) {
+            encoder.write(inputs.msbs, inputs.lsbs, 0, inputs.msbs.length);
+        }
+        return out.position();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void decode(Blackhole bh, Inputs inputs) {
+        var decoder = SortedTypeIdCodec.decoder(inputs.encoded);
+        while (decoder.next((prefix, msb, lsb) -> bh.consume(lsb))) {
+            // consumed by the lambda
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Inputs {
+
+        long[] msbs;
+        long[] lsbs;
+        byte[] encoded;
+        ByteBuffer out;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            List<TypeId> typeIds = TypeId.generate("prefix", 1000);
+            msbs = typeIds.stream().mapToLong(t -> t.uuid().getMostSignificantBits()).toArray();
+            lsbs = typeIds.stream().mapToLong(t -> t.uuid().getLeastSignificantBits()).toArray();
+            encoded = SortedTypeIdCodec.encode("prefix", typeIds);
+            out = ByteBuffer.allocate(encoded.length);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package de.fxlae.typeid;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Compares hourly buckets from the {@link TimeBucketPartitioner} with buckets derived from a parsed
+ * {@link TypeId} via {@link Instant} and {@link java.time.ZonedDateTime}.
+ */
+public class TimeBucketPartitionerBench {
+
+    @Benchmark
+    public long bucketFromText(Inputs inputs) {
+        return inputs.hourly.bucket(inputs.text);
+    }
+
+    @Benchmark
+    public long bucketFromMsb(Inputs inputs) {
+        return inputs.hourly.bucket(inputs.msb);
+    }
+
+    @Benchmark
+    public long bucketViaZonedDateTime(Inputs inputs) {
+        var typeId = TypeId.parse(inputs.text);
+        var instant = Instant.ofEpochMilli(typeId.uuid().getMostSignificantBits() >>> 16);
+        return instant.atZone(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS).toEpochSecond() / 3600;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Inputs {
+        final TimeBucketPartitioner hourly = TimeBucketPartitioner.of(Duration.ofHours(1));
+        final TypeId typeId = TypeId.generate("prefix");
+        final String text = typeId.toString();
+        final long msb = typeId.uuid().getMostSignificantBits();
+    }
+}
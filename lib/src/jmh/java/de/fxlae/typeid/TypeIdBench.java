@@ -1,8 +1,13 @@
 package de.fxlae.typeid;
 
+import de.fxlae.typeid.lib.PrefixRegistry;
+import de.fxlae.typeid.lib.TypeIdLib;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
 import java.util.UUID;
 
 public class TypeIdBench {
@@ -17,11 +22,81 @@ public class TypeIdBench {
         bh.consume(TypeId.generate(inputs.prefix));
     }
 
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void generateLoop1000(Blackhole bh, Inputs inputs) {
+        for (int i = 0; i < 1000; i++) {
+            bh.consume(TypeId.generate(inputs.prefix));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void generateBatch1000(Blackhole bh, Inputs inputs) {
+        bh.consume(TypeId.generate(inputs.prefix, 1000));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void generateIntoBatch1000(Blackhole bh, Inputs inputs) {
+        TypeIdLib.generateInto(inputs.msbs, inputs.lsbs, 0, 1000);
+        bh.consume(inputs.msbs);
+        bh.consume(inputs.lsbs);
+    }
+
+    @Benchmark
+    public void factoryGenerate(Blackhole bh, Inputs inputs) {
+        bh.consume(inputs.factory.generate());
+    }
+
+    @Benchmark
+    public void factoryGenerateString(Blackhole bh, Inputs inputs) {
+        bh.consume(inputs.factory.generateString());
+    }
+
     @Benchmark
     public void toString(Blackhole bh, Inputs inputs) {
         bh.consume(inputs.typeId.toString());
     }
 
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public void toStringRepeated(Blackhole bh, Inputs inputs) {
+        for (int i = 0; i < 10; i++) {
+            bh.consume(inputs.typeId.toString());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public void lazyToStringRepeated(Blackhole bh, Inputs inputs) {
+        for (int i = 0; i < 10; i++) {
+            bh.consume(inputs.lazyTypeId.toString());
+        }
+    }
+
+    @Benchmark
+    public void encodeToCharArray(Blackhole bh, Inputs inputs) {
+        bh.consume(TypeIdLib.encode(inputs.typeId.prefix(), inputs.typeId.uuid(), inputs.chars, 0));
+    }
+
+    @Benchmark
+    public void encodeToByteArray(Blackhole bh, Inputs inputs) {
+        bh.consume(TypeIdLib.encode(inputs.typeId.prefix(), inputs.typeId.uuid(), inputs.bytes, 0));
+    }
+
+    @Benchmark
+    public void encodeToByteBuffer(Blackhole bh, Inputs inputs) {
+        inputs.byteBuffer.clear();
+        bh.consume(TypeIdLib.encode(inputs.typeId.prefix(), inputs.typeId.uuid(), inputs.byteBuffer));
+    }
+
+    @Benchmark
+    public void encodeToStringBuilder(Blackhole bh, Inputs inputs) throws IOException {
+        inputs.stringBuilder.setLength(0);
+        bh.consume(TypeIdLib.encode(inputs.typeId.prefix(), inputs.typeId.uuid(), inputs.stringBuilder));
+    }
+
     @Benchmark
     public void generateAndToString(Blackhole bh, Inputs inputs) {
         TypeId typeId = TypeId.generate(inputs.prefix);
@@ -39,6 +114,40 @@ public class TypeIdBench {
         bh.consume(TypeId.parse(inputs.validTypeId));
     }
 
+    @Benchmark
+    public void parseAndToString(Blackhole bh, Inputs inputs) {
+        bh.consume(TypeId.parse(inputs.validTypeId).toString());
+    }
+
+    @Benchmark
+    public void lazyParseAndToString(Blackhole bh, Inputs inputs) {
+        bh.consume(LazyTypeId.parse(inputs.validTypeId).toString());
+    }
+
+    @Benchmark
+    public void compactParseSuccess(Blackhole bh, Inputs inputs) {
+        bh.consume(CompactTypeId.parse(inputs.validTypeId));
+    }
+
+    @Benchmark
+    public void factoryParseSuccess(Blackhole bh, Inputs inputs) {
+        bh.consume(inputs.factory.parse(inputs.validTypeId));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void parseLoop1000(Blackhole bh, Inputs inputs) {
+        for (String text : inputs.validTypeIds) {
+            bh.consume(TypeId.parse(text));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void decodeColumns1000(Blackhole bh, Inputs inputs) {
+        bh.consume(TypeIdLib.decodeColumns(inputs.validTypeIds, inputs.registry, inputs.msbs, inputs.lsbs, inputs.prefixOrdinals, inputs.invalidRows));
+    }
+
     @Benchmark
     public void parseWithHandlersSuccess(Blackhole bh, Inputs inputs) {
         bh.consume(TypeId.parse(inputs.validTypeId,
@@ -72,6 +181,20 @@ public class TypeIdBench {
                 error -> error));
     }
 
+    @Benchmark
+    public void parseWithErrorCodeSuccess(Blackhole bh, Inputs inputs) {
+        bh.consume(TypeId.parseWithErrorCode(inputs.validTypeId,
+                typeId -> typeId,
+                (error, position) -> error));
+    }
+
+    @Benchmark
+    public void parseWithErrorCodeError(Blackhole bh, Inputs inputs) {
+        bh.consume(TypeId.parseWithErrorCode(inputs.invalidTypeId,
+                typeId -> typeId,
+                (error, position) -> error));
+    }
+
     @Benchmark
     public void parseToOptionalError(Blackhole bh, Inputs inputs) {
         bh.consume(TypeId.parseToOptional(inputs.invalidTypeId));
@@ -90,6 +213,18 @@ public class TypeIdBench {
         String invalidTypeId;
         String prefix;
         TypeId typeId;
+        LazyTypeId lazyTypeId;
+        TypeIdFactory factory;
+        char[] chars;
+        byte[] bytes;
+        ByteBuffer byteBuffer;
+        StringBuilder stringBuilder;
+        long[] msbs;
+        long[] lsbs;
+        int[] prefixOrdinals;
+        BitSet invalidRows;
+        PrefixRegistry registry;
+        String[] validTypeIds;
 
         @Setup(Level.Trial)
         public void setup() {
@@ -98,6 +233,21 @@ public class TypeIdBench {
             invalidTypeId = "prefix_01h455vb4pexÖvsknk084sn02q";
             prefix = "prefix";
             typeId = TypeId.of(prefix, uuid);
+            lazyTypeId = LazyTypeId.of(typeId);
+            factory = TypeId.factory(prefix);
+            chars = new char[128];
+            bytes = new byte[128];
+            byteBuffer = ByteBuffer.allocateDirect(128);
+            stringBuilder = new StringBuilder(128);
+            msbs = new long[1000];
+            lsbs = new long[1000];
+            prefixOrdinals = new int[1000];
+            invalidRows = new BitSet(1000);
+            registry = new PrefixRegistry();
+            validTypeIds = new String[1000];
+            for (int i = 0; i < validTypeIds.length; i++) {
+                validTypeIds[i] = TypeId.generate(prefix).toString();
+            }
         }
     }
 
@@ -0,0 +1,57 @@
+package de.fxlae.typeid;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Scans a time window of a {@link TypeIdLog}.
+ */
+public class TypeIdLogBench {
+
+    @Benchmark
+    public void forEachInTimeRange(Blackhole bh, Inputs inputs) {
+        inputs.log.forEachInTimeRange(inputs.from, inputs.to, (prefix, msb, lsb) -> bh.consume(lsb));
+    }
+
+    @Benchmark
+    public long lowerBound(Inputs inputs) {
+        return inputs.log.lowerBound(inputs.from);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Inputs {
+
+        @Param({"10000000"})
+        int size;
+
+        Path path;
+        TypeIdLog log;
+        long from;
+        long to;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            path = Files.createTempFile("typeid", ".log");
+            Files.delete(path);
+            try (var writer = TypeIdLog.open(path)) {
+                for (TypeId typeId : TypeId.generate("prefix", size)) {
+                    writer.append(typeId);
+                }
+            }
+            log = TypeIdLog.openReadOnly(path);
+            // a window of roughly 1000 records in the middle of the log
+            from = log.timestampMillis(size / 2);
+            to = log.timestampMillis(Math.min(size - 1, size / 2 + 1000)) + 1;
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            log.close();
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package de.fxlae.typeid;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Compares lookups in a {@link TypeIdSet} with lookups in a {@link HashSet} of {@link TypeId}s.
+ */
+public class TypeIdSetBench {
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void hashSetContains(Blackhole bh, Inputs inputs) {
+        for (TypeId typeId : inputs.lookups) {
+            bh.consume(inputs.hashSet.contains(typeId));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void typeIdSetContains(Blackhole bh, Inputs inputs) {
+        for (TypeId typeId : inputs.lookups) {
+            bh.consume(inputs.typeIdSet.contains(typeId));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void hashSetContainsText(Blackhole bh, Inputs inputs) {
+        for (String text : inputs.lookupTexts) {
+            bh.consume(inputs.hashSet.contains(TypeId.parse(text)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void typeIdSetContainsText(Blackhole bh, Inputs inputs) {
+        for (String text : inputs.lookupTexts) {
+            bh.consume(inputs.typeIdSet.contains(text));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Inputs {
+
+        @Param({"1000000"})
+        int size;
+
+        Set<TypeId> hashSet;
+        TypeIdSet typeIdSet;
+        TypeId[] lookups;
+        String[] lookupTexts;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            hashSet = new HashSet<>();
+            typeIdSet = new TypeIdSet(size);
+            lookups = new TypeId[1000];
+            lookupTexts = new String[1000];
+            var generated = TypeId.generate("prefix", size);
+            for (int i = 0; i < size; i++) {
+                hashSet.add(generated.get(i));
+                typeIdSet.add(generated.get(i));
+            }
+            for (int i = 0; i < lookups.length; i++) {
+                // every second lookup hits
+                var typeId = i % 2 == 0 ? generated.get(i * (size / lookups.length)) : TypeId.generate("prefix");
+                lookups[i] = TypeId.of(typeId.prefix(), typeId.uuid());
+                lookupTexts[i] = typeId.toString();
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package de.fxlae.typeid;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.BufferedReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Compares the binary wire format with newline separated text.
+ */
+public class TypeIdWireBench {
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public byte[] encodeWire(Inputs inputs) throws IOException {
+        var out = new ByteArrayOutputStream(20_000);
+        try (var encoder = new TypeIdWireEncoder(out)) {
+            for (TypeId typeId : inputs.typeIds) {
+                encoder.write(typeId);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public byte[] encodeText(Inputs inputs) throws IOException {
+        var out = new ByteArrayOutputStream(40_000);
+        try (Writer writer = new OutputStreamWriter(out, StandardCharsets.US_ASCII)) {
+            for (TypeId typeId : inputs.typeIds) {
+                writer.write(typeId.toString());
+                writer.write('\n');
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void decodeWire(Blackhole bh, Inputs inputs) throws IOException {
+        try (var decoder = new TypeIdWireDecoder(new ByteArrayInputStream(inputs.wire))) {
+            while (decoder.read((prefix, msb, lsb) -> bh.consume(lsb))) {
+                // consumed by the lambda
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void decodeText(Blackhole bh, Inputs inputs) throws IOException {
+        try (var reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(inputs.text), StandardCharsets.US_ASCII))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                bh.consume(TypeId.parse(line));
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Inputs {
+
+        List<TypeId> typeIds;
+        byte[] wire;
+        byte[] text;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            typeIds = TypeId.generate("prefix", 1000);
+            var bench = new TypeIdWireBench();
+            wire = bench.encodeWire(this);
+            text = bench.encodeText(this);
+        }
+    }
+}
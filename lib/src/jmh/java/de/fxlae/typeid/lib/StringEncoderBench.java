@@ -0,0 +1,38 @@
+package de.fxlae.typeid.lib;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.UUID;
+
+/**
+ * Compares the encoders that can be selected for {@code TypeIdLib.encode} (and therefore {@code TypeId.toString()}).
+ */
+public class StringEncoderBench {
+
+    @Benchmark
+    public void encodeWithChars(Blackhole bh, Inputs inputs) {
+        bh.consume(StringEncoder.CHARS.encode(inputs.prefix, inputs.msb, inputs.lsb));
+    }
+
+    @Benchmark
+    public void encodeWithPairs(Blackhole bh, Inputs inputs) {
+        bh.consume(StringEncoder.PAIRS.encode(inputs.prefix, inputs.msb, inputs.lsb));
+    }
+
+    @State(Scope.Thread)
+    public static class Inputs {
+
+        String prefix;
+        long msb;
+        long lsb;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            prefix = "prefix";
+            var uuid = UUID.randomUUID();
+            msb = uuid.getMostSignificantBits();
+            lsb = uuid.getLeastSignificantBits();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package de.fxlae.typeid.lib;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compares the scalar and the preferred (SIMD, if available) suffix decoder, on their own and as part
+ * of parsing ASCII encoded TypeIDs. Without {@code --add-modules jdk.incubator.vector}, both are scalar.
+ */
+public class SuffixDecoderBench {
+
+    @Benchmark
+    public void decodeScalar(Blackhole bh, Inputs inputs) {
+        bh.consume(SuffixDecoder.SCALAR.decode(inputs.bytes, 8, inputs.out));
+        bh.consume(inputs.out);
+    }
+
+    @Benchmark
+    public void decodePreferred(Blackhole bh, Inputs inputs) {
+        bh.consume(SuffixDecoder.PREFERRED.decode(inputs.bytes, 8, inputs.out));
+        bh.consume(inputs.out);
+    }
+
+    @Benchmark
+    public void parseBytes(Blackhole bh, Inputs inputs) {
+        bh.consume(TypeIdLib.parse(inputs.bytes, 0, inputs.bytes.length, (prefix, uuid) -> uuid, error -> null));
+    }
+
+    @Benchmark
+    public void parseString(Blackhole bh, Inputs inputs) {
+        bh.consume(TypeIdLib.parse(inputs.string, (prefix, uuid) -> uuid, error -> null));
+    }
+
+    @State(Scope.Thread)
+    public static class Inputs {
+
+        String string;
+        byte[] bytes;
+        long[] out;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            // the SIMD decoder needs 6 more bytes before or after the suffix, so the prefix is not too short
+            string = "account_01h455vb4pex5vsknk084sn02q";
+            bytes = string.getBytes(StandardCharsets.US_ASCII);
+            out = new long[2];
+        }
+    }
+}
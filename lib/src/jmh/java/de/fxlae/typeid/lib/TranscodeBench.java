@@ -0,0 +1,55 @@
+package de.fxlae.typeid.lib;
+
+import de.fxlae.typeid.TypeId;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Compares transcoding UUID text to TypeID text in a single pass with the way via {@link UUID} and {@link TypeId}.
+ */
+public class TranscodeBench {
+
+    @Benchmark
+    public int uuidToTypeId(Inputs inputs) {
+        return TypeIdLib.uuidToTypeId("prefix", inputs.uuidText, 0, inputs.typeIdText, 0);
+    }
+
+    @Benchmark
+    public String uuidToTypeIdViaObjects(Inputs inputs) {
+        return TypeId.of("prefix", UUID.fromString(inputs.uuidString)).toString();
+    }
+
+    @Benchmark
+    public int typeIdToUuid(Inputs inputs) {
+        return TypeIdLib.typeIdToUuid(inputs.typeIdBytes, 0, inputs.typeIdBytes.length, inputs.uuidBytes, 0);
+    }
+
+    @Benchmark
+    public String typeIdToUuidViaObjects(Inputs inputs) {
+        return TypeId.parse(inputs.typeIdString).uuid().toString();
+    }
+
+    @State(Scope.Thread)
+    public static class Inputs {
+
+        String uuidString;
+        String typeIdString;
+        char[] uuidText;
+        char[] typeIdText;
+        byte[] typeIdBytes;
+        byte[] uuidBytes;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            var typeId = TypeId.generate("prefix");
+            uuidString = typeId.uuid().toString();
+            typeIdString = typeId.toString();
+            uuidText = uuidString.toCharArray();
+            typeIdText = new char[typeIdString.length()];
+            typeIdBytes = typeIdString.getBytes(StandardCharsets.US_ASCII);
+            uuidBytes = new byte[36];
+        }
+    }
+}
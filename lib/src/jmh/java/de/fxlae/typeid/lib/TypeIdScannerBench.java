@@ -0,0 +1,63 @@
+package de.fxlae.typeid.lib;
+
+import de.fxlae.typeid.TypeId;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the scanner with a regular expression plus parsing on NDJSON-like log lines.
+ */
+public class TypeIdScannerBench {
+
+    private static final Pattern TYPE_ID = Pattern.compile("\\b(?:[a-z](?:[a-z_]*[a-z])?_)?[0-7][0-9a-hjkmnp-tv-z]{25}\\b");
+
+    @Benchmark
+    public long scan(Blackhole bh, Inputs inputs) {
+        return inputs.scanner.scan(inputs.bytes.duplicate(), (prefix, msb, lsb) -> bh.consume(lsb));
+    }
+
+    @Benchmark
+    public long scanOffsets(Blackhole bh, Inputs inputs) {
+        return inputs.scanner.scanOffsets(inputs.bytes.duplicate(), (offset, length) -> bh.consume(offset));
+    }
+
+    @Benchmark
+    public long regexAndParse(Blackhole bh, Inputs inputs) {
+        long count = 0;
+        final Matcher matcher = TYPE_ID.matcher(inputs.text);
+        while (matcher.find()) {
+            bh.consume(TypeId.parseToOptional(matcher.group()));
+            count++;
+        }
+        return count;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Inputs {
+
+        TypeIdScanner scanner;
+        String text;
+        ByteBuffer bytes;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            scanner = TypeIdScanner.create();
+            var sb = new StringBuilder();
+            for (int i = 0; i < 1000; i++) {
+                sb.append("{\"ts\":\"2024-05-01T12:00:00.000Z\",\"level\":\"INFO\",\"order\":\"")
+                        .append(TypeId.generate("order"))
+                        .append("\",\"user\":\"")
+                        .append(TypeId.generate("user"))
+                        .append("\",\"message\":\"order placed successfully\"}\n");
+            }
+            text = sb.toString();
+            bytes = ByteBuffer.allocateDirect(text.length());
+            bytes.put(text.getBytes(StandardCharsets.US_ASCII)).flip();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package de.fxlae.typeid;
+
+import de.fxlae.typeid.lib.PrefixRegistry;
+import de.fxlae.typeid.lib.TypeIdLib;
+
+import java.util.UUID;
+
+/**
+ * A compact {@code record} for representing TypeIDs in memory, e.g. in large caches.
+ * <p> Unlike {@link TypeId}, which references a separate {@link UUID} object, the 128 bits of the UUID are
+ * stored inline as two {@code long}s. The prefix is the canonical instance from the
+ * {@link PrefixRegistry#shared() shared} {@link PrefixRegistry}, so all instances with the same (registered)
+ * prefix reference the same {@link String}. This makes one object per TypeID instead of two.
+ *
+ * @param prefix the prefix of the TypeID. Might be an empty string, but not null.
+ * @param msb    the most significant bits of the {@link UUID}
+ * @param lsb    the least significant bits of the {@link UUID}
+ */
+public record CompactTypeId(String prefix, long msb, long lsb) {
+
+    private static final int SUFFIX_LENGTH = 26;
+
+    /**
+     * @param prefix the prefix
+     * @param msb    the most significant bits of the {@link UUID}
+     * @param lsb    the least significant bits of the {@link UUID}
+     * @throws NullPointerException     if the prefix is null
+     * @throws IllegalArgumentException if the prefix is invalid
+     */
+    public CompactTypeId {
+        prefix = TypeIdLib.canonicalPrefix(prefix);
+    }
+
+    /**
+     * Creates a new {@link CompactTypeId} with the given prefix and {@link UUID}.
+     *
+     * @param prefix the prefix to use
+     * @param uuid   the {@link UUID} to use
+     * @return the new {@link CompactTypeId}
+     * @throws NullPointerException     if the prefix and/or UUID is null
+     * @throws IllegalArgumentException if the prefix is invalid
+     */
+    public static CompactTypeId of(final String prefix, final UUID uuid) {
+        return new CompactTypeId(prefix, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Creates a new {@link CompactTypeId} from a {@link TypeId}.
+     *
+     * @param typeId the {@link TypeId}
+     * @return the new {@link CompactTypeId}
+     * @throws NullPointerException if the {@link TypeId} is null
+     */
+    public static CompactTypeId of(final TypeId typeId) {
+        return of(typeId.prefix(), typeId.uuid());
+    }
+
+    /**
+     * Parses the textual representation of a TypeID and returns a {@link CompactTypeId} instance.
+     *
+     * @param text the textual representation.
+     * @return the new {@link CompactTypeId}.
+     * @throws IllegalArgumentException if the text is null or invalid
+     */
+    public static CompactTypeId parse(final CharSequence text) {
+        final String error = TypeIdLib.validate(text);
+        if (error != TypeIdLib.VALID_REF) {
+            throw new IllegalArgumentException(error);
+        }
+        // the bits are decoded directly, without a UUID in between
+        final int start = text.length() - SUFFIX_LENGTH;
+        final long msb = TypeIdLib.decodeSuffixMsb(text, start);
+        final long lsb = TypeIdLib.decodeSuffixLsb(text, start);
+        if (start == 0) {
+            return new CompactTypeId("", msb, lsb);
+        }
+        final String prefix = PrefixRegistry.shared().lookup(text, 0, start - 1);
+        return new CompactTypeId(prefix != null ? prefix : text.subSequence(0, start - 1).toString(), msb, lsb);
+    }
+
+    /**
+     * Returns the {@link UUID} of this TypeID as a new instance.
+     *
+     * @return the {@link UUID}
+     */
+    public UUID uuid() {
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * Returns the timestamp of the UUIDv7 of this TypeID, read directly from the upper 48 bits of the
+     * {@link #msb()}.
+     * <p> For other versions of {@link UUID}, these bits have a different meaning.
+     *
+     * @return the timestamp in milliseconds since the Unix epoch
+     */
+    public long timestampMillis() {
+        return TypeIdLib.timestampMillis(msb);
+    }
+
+    /**
+     * Returns the {@link TypeId} with the same prefix and {@link UUID}.
+     *
+     * @return the {@link TypeId}
+     */
+    public TypeId toTypeId() {
+        return new TypeId(prefix, uuid());
+    }
+
+    /**
+     * Returns the textual representation of this {@link CompactTypeId}.
+     *
+     * @return the textual representation.
+     */
+    @Override
+    public String toString() {
+        return TypeIdLib.encode(prefix, msb, lsb);
+    }
+}
@@ -0,0 +1,169 @@
+package de.fxlae.typeid;
+
+import de.fxlae.typeid.lib.PrefixRegistry;
+import de.fxlae.typeid.lib.TypeIdLib;
+import de.fxlae.typeid.util.Validated;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A TypeID that is held either as its textual representation or as a {@link TypeId}, and derives the
+ * other form only when it is first needed. The derived form is memoized.
+ * <p> A {@link LazyTypeId} that is parsed suits TypeIDs that are mostly passed through, e.g. read from a request
+ * and written into a response: parsing only validates the text, and {@link #toString()} returns the original
+ * text, so neither decoding nor encoding takes place. A {@link LazyTypeId} that is created from a prefix and a
+ * {@link UUID} encodes its textual representation once, however often it is logged, hashed or serialized.
+ * <p> Two instances are equal if their textual representations are equal. As the textual representation
+ * of a TypeID is canonical, this is the case if and only if their prefixes and {@link UUID}s are equal.
+ * <p> Instances are immutable and thread-safe.
+ */
+public final class LazyTypeId {
+
+    private static final int SUFFIX_LENGTH = 26;
+
+    // the form the instance was created from, exactly one of them is null
+    private final String sourceText;
+    private final TypeId sourceTypeId;
+
+    // the derived form, memoized without synchronization: concurrent first accesses might derive it more
+    // than once, but always to equal, immutable values. the source fields are final, so instances are safe
+    // even if they are published via a data race.
+    private String text;
+    private TypeId typeId;
+
+    private LazyTypeId(final String sourceText, final TypeId sourceTypeId) {
+        this.sourceText = sourceText;
+        this.sourceTypeId = sourceTypeId;
+    }
+
+    /**
+     * Validates the textual representation of a TypeID and returns a {@link LazyTypeId} holding it.
+     *
+     * @param text the textual representation
+     * @return the new {@link LazyTypeId}
+     * @throws IllegalArgumentException if the text is null or invalid
+     */
+    public static LazyTypeId parse(final String text) {
+        final String validation = TypeIdLib.validate(text);
+        if (validation != TypeIdLib.VALID_REF) {
+            throw new IllegalArgumentException(validation);
+        }
+        return new LazyTypeId(text, null);
+    }
+
+    /**
+     * Validates the textual representation of a TypeID and returns a {@link Validated}.
+     *
+     * @param text the textual representation
+     * @return a valid {@link Validated} containing a {@link LazyTypeId} or an invalid {@link Validated} with an error message
+     */
+    public static Validated<LazyTypeId> parseToValidated(final String text) {
+        final String validation = TypeIdLib.validate(text);
+        if (validation != TypeIdLib.VALID_REF) {
+            return Validated.invalid(validation);
+        }
+        return Validated.valid(new LazyTypeId(text, null));
+    }
+
+    /**
+     * Creates a {@link LazyTypeId} from a {@link TypeId}. The textual representation is encoded on first access.
+     *
+     * @param typeId the {@link TypeId}
+     * @return the new {@link LazyTypeId}
+     * @throws NullPointerException if the {@link TypeId} is null
+     */
+    public static LazyTypeId of(final TypeId typeId) {
+        return new LazyTypeId(null, Objects.requireNonNull(typeId));
+    }
+
+    /**
+     * Creates a {@link LazyTypeId} from a prefix and a {@link UUID}. The textual representation is encoded on
+     * first access.
+     *
+     * @param prefix the prefix, might be an empty string
+     * @param uuid   the {@link UUID}
+     * @return the new {@link LazyTypeId}
+     * @throws NullPointerException     if the prefix and/or UUID is null
+     * @throws IllegalArgumentException if the prefix is invalid
+     */
+    public static LazyTypeId of(final String prefix, final UUID uuid) {
+        return of(TypeId.of(prefix, uuid));
+    }
+
+    /**
+     * Returns the prefix, which is extracted from the text on first access.
+     *
+     * @return the prefix, might be an empty string
+     */
+    public String prefix() {
+        return toTypeId().prefix();
+    }
+
+    /**
+     * Returns the {@link UUID}, which is decoded from the text on first access.
+     *
+     * @return the {@link UUID}
+     */
+    public UUID uuid() {
+        return toTypeId().uuid();
+    }
+
+    /**
+     * Returns the {@link TypeId} with the same prefix and {@link UUID}, which is decoded from the text on first access.
+     *
+     * @return the {@link TypeId}
+     */
+    public TypeId toTypeId() {
+        if (sourceTypeId != null) {
+            return sourceTypeId;
+        }
+        TypeId t = typeId;
+        if (t == null) {
+            t = new TypeId(extractPrefix(sourceText), TypeIdLib.decodeSuffix(sourceText, sourceText.length() - SUFFIX_LENGTH));
+            typeId = t;
+        }
+        return t;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LazyTypeId other)) return false;
+        return toString().equals(other.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+    /**
+     * Returns the textual representation, which is either the text this instance was parsed from or
+     * encoded on first access.
+     *
+     * @return the textual representation
+     */
+    @Override
+    public String toString() {
+        if (sourceText != null) {
+            return sourceText;
+        }
+        String t = text;
+        if (t == null) {
+            t = sourceTypeId.toString();
+            text = t;
+        }
+        return t;
+    }
+
+    // the text has been validated, known prefixes are taken from the registry without creating a substring
+    private static String extractPrefix(final String text) {
+        final int separatorIndex = text.length() - SUFFIX_LENGTH - 1;
+        if (separatorIndex < 0) {
+            return "";
+        }
+        final String prefix = PrefixRegistry.shared().lookup(text, 0, separatorIndex);
+        return prefix != null ? prefix : text.substring(0, separatorIndex);
+    }
+}
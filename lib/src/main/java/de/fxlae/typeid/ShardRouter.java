@@ -0,0 +1,162 @@
+package de.fxlae.typeid;
+
+import de.fxlae.typeid.lib.TypeIdLib;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Routes TypeIDs to shards by consistent hashing of the random bits of their UUIDv7.
+ * <p> The routing key is the 62 bit {@code rand_b} field of the least significant bits of the {@link UUID},
+ * which is random for TypeIDs created with {@link TypeId#generate(String)}. The timestamp is not part of the
+ * key, as it would skew the distribution towards recent shards. The key is mixed before it's used, so that
+ * non-random bits in {@code rand_b}, like a node id, don't skew the distribution either. Neither the
+ * {@link String} representation nor its hash code is needed, a TypeID given as text is validated and
+ * only its least significant bits are decoded.
+ * <p> Two strategies are available:
+ * <ul>
+ * <li>{@link #jump(int)}: Jump Consistent Hash, which needs no memory and moves only {@code 1/n} of the
+ * TypeIDs when growing from {@code n - 1} to {@code n} shards, but can only add or remove the last shard.</li>
+ * <li>{@link #rendezvous(long...)}: Rendezvous (highest random weight) hashing over nodes with stable ids,
+ * which can add or remove any node and moves only the TypeIDs of that node, at the cost of one hash per
+ * node and routed TypeID.</li>
+ * </ul>
+ * <p> The results are part of the contract of this class and will not change in future versions, so that
+ * different services can route consistently. Instances are immutable and thread-safe.
+ */
+public final class ShardRouter {
+
+    private static final long RAND_B_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    private final int shards;
+    // the mixed node ids for rendezvous hashing, null for jump consistent hashing
+    private final long[] nodeSeeds;
+
+    private ShardRouter(final int shards, final long[] nodeSeeds) {
+        this.shards = shards;
+        this.nodeSeeds = nodeSeeds;
+    }
+
+    /**
+     * Creates a router with Jump Consistent Hash (Lamping and Veach, 2014) over the given number of shards.
+     *
+     * @param shards the number of shards
+     * @return the new {@link ShardRouter}
+     * @throws IllegalArgumentException if the number of shards is less than 1
+     */
+    public static ShardRouter jump(final int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("Number of shards must be at least 1");
+        }
+        return new ShardRouter(shards, null);
+    }
+
+    /**
+     * Creates a router with Rendezvous hashing over nodes with the given ids. The shard returned by this
+     * router is the index of the selected node in the given array, the choice of the node only depends on
+     * the set of node ids, not on their order.
+     *
+     * @param nodeIds the stable and distinct ids of the nodes
+     * @return the new {@link ShardRouter}
+     * @throws NullPointerException     if the node ids are null
+     * @throws IllegalArgumentException if there are no node ids or they are not distinct
+     */
+    public static ShardRouter rendezvous(final long... nodeIds) {
+        if (nodeIds.length == 0) {
+            throw new IllegalArgumentException("At least one node id is required");
+        }
+        final long[] sorted = nodeIds.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] == sorted[i - 1]) {
+                throw new IllegalArgumentException("Node ids must be distinct, " + sorted[i] + " is duplicated");
+            }
+        }
+        final long[] nodeSeeds = new long[nodeIds.length];
+        for (int i = 0; i < nodeIds.length; i++) {
+            nodeSeeds[i] = mix(nodeIds[i]);
+        }
+        return new ShardRouter(nodeIds.length, nodeSeeds);
+    }
+
+    /**
+     * Returns the number of shards.
+     *
+     * @return the number of shards
+     */
+    public int shards() {
+        return shards;
+    }
+
+    /**
+     * Returns the shard of the {@link TypeId}.
+     *
+     * @param typeId the {@link TypeId}
+     * @return the shard, between {@code 0} and {@link #shards()} (exclusive)
+     * @throws NullPointerException if the {@link TypeId} is null
+     */
+    public int shard(final TypeId typeId) {
+        return shard(typeId.uuid().getLeastSignificantBits());
+    }
+
+    /**
+     * Returns the shard of the TypeID with the given least significant bits of its {@link UUID}.
+     *
+     * @param lsb the least significant bits of the {@link UUID}
+     * @return the shard, between {@code 0} and {@link #shards()} (exclusive)
+     */
+    public int shard(final long lsb) {
+        final long key = mix(lsb & RAND_B_MASK);
+        return nodeSeeds == null ? jumpHash(key, shards) : rendezvous(key, nodeSeeds);
+    }
+
+    /**
+     * Returns the shard of the TypeID given by its textual representation. Only the suffix is validated and
+     * only its least significant bits are decoded, the prefix is ignored.
+     *
+     * @param text the textual representation
+     * @return the shard, between {@code 0} and {@link #shards()} (exclusive)
+     * @throws NullPointerException     if the text is null
+     * @throws IllegalArgumentException if the suffix is invalid
+     */
+    public int shard(final CharSequence text) {
+        final int start = TypeIdLib.validSuffixStart(text);
+        if (start < 0) {
+            throw new IllegalArgumentException("Text does not end with a valid suffix");
+        }
+        return shard(TypeIdLib.decodeSuffixLsb(text, start));
+    }
+
+    // Lamping and Veach, "A Fast, Minimal Memory, Consistent Hash Algorithm", 2014
+    private static int jumpHash(long key, final int buckets) {
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+
+    // the node with the highest weight wins. mix is a bijection and the seeds are distinct, so there are no ties.
+    private static int rendezvous(final long key, final long[] nodeSeeds) {
+        int best = 0;
+        long bestWeight = mix(key ^ nodeSeeds[0]);
+        for (int i = 1; i < nodeSeeds.length; i++) {
+            final long weight = mix(key ^ nodeSeeds[i]);
+            if (Long.compareUnsigned(weight, bestWeight) > 0) {
+                best = i;
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+
+    // the finalizer of MurmurHash3
+    private static long mix(long h) {
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
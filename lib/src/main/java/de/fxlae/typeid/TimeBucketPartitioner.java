@@ -0,0 +1,163 @@
+package de.fxlae.typeid;
+
+import de.fxlae.typeid.lib.TypeIdLib;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Maps UUIDv7 based TypeIDs to buckets of creation time, e.g. to route them to hourly or daily partitions.
+ * <p> Bucket {@code 0} starts at the origin, which is the Unix epoch by default, and each bucket covers the
+ * same number of milliseconds. The bucket is computed from the timestamp bits of the {@link UUID} with a
+ * subtraction and a division (or a shift, if the width is a power of two milliseconds), without creating an
+ * {@link Instant} or any other object. Buckets of whole days with an origin at midnight of a time zone only
+ * work for zones without daylight saving time.
+ * <p> Instances are immutable and thread-safe.
+ */
+public final class TimeBucketPartitioner {
+
+    private final long widthMillis;
+    private final long originMillis;
+    // the shift for widths that are a power of two, -1 otherwise
+    private final int shift;
+
+    private TimeBucketPartitioner(final long widthMillis, final long originMillis) {
+        this.widthMillis = widthMillis;
+        this.originMillis = originMillis;
+        this.shift = Long.bitCount(widthMillis) == 1 ? Long.numberOfTrailingZeros(widthMillis) : -1;
+    }
+
+    /**
+     * Creates a partitioner with buckets of the given width, starting at the Unix epoch.
+     *
+     * @param width the width of each bucket, at least one millisecond
+     * @return the new {@link TimeBucketPartitioner}
+     * @throws NullPointerException     if the width is null
+     * @throws IllegalArgumentException if the width is shorter than one millisecond
+     */
+    public static TimeBucketPartitioner of(final Duration width) {
+        return of(width, Instant.EPOCH);
+    }
+
+    /**
+     * Creates a partitioner with buckets of the given width, starting at the given origin.
+     *
+     * @param width  the width of each bucket, at least one millisecond. Fractions of milliseconds are ignored.
+     * @param origin the start of bucket {@code 0}. Fractions of milliseconds are ignored.
+     * @return the new {@link TimeBucketPartitioner}
+     * @throws NullPointerException     if the width and/or origin is null
+     * @throws IllegalArgumentException if the width is shorter than one millisecond or the origin is out of
+     *                                  the range of UUIDv7 timestamps
+     */
+    public static TimeBucketPartitioner of(final Duration width, final Instant origin) {
+        Objects.requireNonNull(width);
+        final long originMillis = TypeIdLib.timestampMillis(origin);
+        final long widthMillis;
+        try {
+            widthMillis = width.toMillis();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Bucket width is too long");
+        }
+        if (widthMillis < 1) {
+            throw new IllegalArgumentException("Bucket width must be at least one millisecond");
+        }
+        return new TimeBucketPartitioner(widthMillis, originMillis);
+    }
+
+    /**
+     * Returns the bucket of the {@link TypeId}.
+     *
+     * @param typeId the {@link TypeId}
+     * @return the bucket, negative if the timestamp is before the origin
+     * @throws NullPointerException if the {@link TypeId} is null
+     */
+    public long bucket(final TypeId typeId) {
+        return bucket(typeId.uuid().getMostSignificantBits());
+    }
+
+    /**
+     * Returns the bucket of the TypeID with the given most significant bits of its {@link UUID}.
+     *
+     * @param msb the most significant bits of the {@link UUID}
+     * @return the bucket, negative if the timestamp is before the origin
+     */
+    public long bucket(final long msb) {
+        final long millis = TypeIdLib.timestampMillis(msb) - originMillis;
+        // an arithmetic shift rounds down like floorDiv
+        return shift >= 0 ? millis >> shift : Math.floorDiv(millis, widthMillis);
+    }
+
+    /**
+     * Returns the bucket of the TypeID given by its textual representation. Only the suffix is validated and
+     * only its timestamp is decoded, the prefix is ignored.
+     *
+     * @param text the textual representation
+     * @return the bucket, negative if the timestamp is before the origin
+     * @throws NullPointerException     if the text is null
+     * @throws IllegalArgumentException if the suffix is invalid
+     */
+    public long bucket(final CharSequence text) {
+        final int start = TypeIdLib.validSuffixStart(text);
+        if (start < 0) {
+            throw new IllegalArgumentException("Text does not end with a valid suffix");
+        }
+        final long millis = TypeIdLib.decodeTimestampMillis(text, start) - originMillis;
+        return shift >= 0 ? millis >> shift : Math.floorDiv(millis, widthMillis);
+    }
+
+    /**
+     * Computes the buckets of a column of most significant bits of {@link UUID}s.
+     *
+     * @param msbs      the most significant bits
+     * @param offset    the index of the first element in {@code msbs}
+     * @param buckets   the array to write the buckets to
+     * @param dstOffset the index of the first bucket in {@code buckets}
+     * @param n         the number of elements
+     * @throws NullPointerException      if one of the arrays is null
+     * @throws IndexOutOfBoundsException if one of the ranges is out of bounds
+     */
+    public void buckets(final long[] msbs, final int offset, final long[] buckets, final int dstOffset, final int n) {
+        Objects.checkFromIndexSize(offset, n, msbs.length);
+        Objects.checkFromIndexSize(dstOffset, n, buckets.length);
+        // separate loops, so that the JIT doesn't have to branch per element
+        if (shift >= 0) {
+            for (int i = 0; i < n; i++) {
+                buckets[dstOffset + i] = ((msbs[offset + i] >>> 16) - originMillis) >> shift;
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                buckets[dstOffset + i] = Math.floorDiv((msbs[offset + i] >>> 16) - originMillis, widthMillis);
+            }
+        }
+    }
+
+    /**
+     * Returns the start of the given bucket, e.g. to name the partition.
+     *
+     * @param bucket the bucket
+     * @return the start of the bucket in milliseconds since the Unix epoch
+     */
+    public long bucketStartMillis(final long bucket) {
+        return originMillis + bucket * widthMillis;
+    }
+
+    /**
+     * Returns the width of each bucket.
+     *
+     * @return the width in milliseconds
+     */
+    public long widthMillis() {
+        return widthMillis;
+    }
+
+    /**
+     * Returns the start of bucket {@code 0}.
+     *
+     * @return the origin in milliseconds since the Unix epoch
+     */
+    public long originMillis() {
+        return originMillis;
+    }
+}
@@ -1,8 +1,16 @@
 package de.fxlae.typeid;
 
+import de.fxlae.typeid.lib.ParseError;
+import de.fxlae.typeid.lib.ParseErrorHandler;
+import de.fxlae.typeid.lib.PrefixRegistry;
 import de.fxlae.typeid.lib.TypeIdLib;
+import de.fxlae.typeid.lib.UuidV7Generator;
 import de.fxlae.typeid.util.Validated;
 
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,12 +32,14 @@ public record TypeId(String prefix, UUID uuid) {
      * @throws IllegalArgumentException if the prefix is invalid
      */
     public TypeId {
-        TypeIdLib.requireValidPrefix(prefix);
+        prefix = TypeIdLib.canonicalPrefix(prefix);
         Objects.requireNonNull(uuid);
     }
 
     /**
      * Creates a new prefixed {@link TypeId} based on UUIDv7.
+     * <p> The prefix is registered in the {@link PrefixRegistry#shared() shared} {@link PrefixRegistry}, so
+     * that it is validated only once and parsed TypeIDs with the same prefix share its instance.
      *
      * @param prefix the prefix to use
      * @return the new {@link TypeId}
@@ -37,7 +47,47 @@ public record TypeId(String prefix, UUID uuid) {
      * @throws IllegalArgumentException if the prefix is invalid
      */
     public static TypeId generate(String prefix) {
-        return of(prefix, TypeIdLib.getUuidV7());
+        return of(PrefixRegistry.shared().intern(prefix), TypeIdLib.getUuidV7());
+    }
+
+    /**
+     * Creates a new prefixed {@link TypeId} based on a UUIDv7 of the given generator, e.g. one that
+     * stores a node id in each UUID.
+     *
+     * @param prefix    the prefix to use
+     * @param generator the {@link UuidV7Generator} to use
+     * @return the new {@link TypeId}
+     * @throws NullPointerException     if the prefix and/or generator is null
+     * @throws IllegalArgumentException if the prefix is invalid
+     */
+    public static TypeId generate(String prefix, UuidV7Generator generator) {
+        return of(PrefixRegistry.shared().intern(prefix), generator.generate());
+    }
+
+    /**
+     * Creates {@code n} new prefixed {@link TypeId}s based on UUIDv7 at once.
+     * <p> The prefix is validated only once and the underlying generator is advanced only once for the
+     * whole batch. The {@link TypeId}s are strictly increasing in the order of the returned {@link List}.
+     *
+     * @param prefix the prefix to use
+     * @param n      the number of {@link TypeId}s to create
+     * @return an unmodifiable {@link List} of the new {@link TypeId}s
+     * @throws NullPointerException     if the prefix is null
+     * @throws IllegalArgumentException if the prefix is invalid or n is negative
+     */
+    public static List<TypeId> generate(String prefix, int n) {
+        var canonicalPrefix = PrefixRegistry.shared().intern(prefix);
+        if (n < 0) {
+            throw new IllegalArgumentException("Number of TypeIds must not be negative");
+        }
+        var msbs = new long[n];
+        var lsbs = new long[n];
+        TypeIdLib.generateInto(msbs, lsbs, 0, n);
+        var typeIds = new TypeId[n];
+        for (int i = 0; i < n; i++) {
+            typeIds[i] = new TypeId(canonicalPrefix, new UUID(msbs[i], lsbs[i]));
+        }
+        return Collections.unmodifiableList(Arrays.asList(typeIds));
     }
 
     /**
@@ -50,6 +100,34 @@ public record TypeId(String prefix, UUID uuid) {
         return of("", TypeIdLib.getUuidV7());
     }
 
+    /**
+     * Returns a {@link TypeIdFactory} for the given prefix.
+     * <p> The prefix is validated once, so that the factory can generate, encode and parse TypeIDs
+     * with this prefix without any per-call prefix work.
+     *
+     * @param prefix the prefix of all TypeIDs of the factory
+     * @return the new {@link TypeIdFactory}
+     * @throws NullPointerException     if the prefix is null
+     * @throws IllegalArgumentException if the prefix is invalid
+     */
+    public static TypeIdFactory factory(String prefix) {
+        return new TypeIdFactory(prefix);
+    }
+
+    /**
+     * Returns a {@link TypeIdFactory} for the given prefix, which generates TypeIDs with the given
+     * {@link UuidV7Generator}, e.g. one that stores a node id in each UUID.
+     *
+     * @param prefix    the prefix of all TypeIDs of the factory
+     * @param generator the {@link UuidV7Generator} to use
+     * @return the new {@link TypeIdFactory}
+     * @throws NullPointerException     if the prefix and/or generator is null
+     * @throws IllegalArgumentException if the prefix is invalid
+     */
+    public static TypeIdFactory factory(String prefix, UuidV7Generator generator) {
+        return new TypeIdFactory(prefix, generator);
+    }
+
     /**
      * Creates a new {@link TypeId} without prefix, based on the given {@link UUID}.
      * <p> The {@link UUID} can be of any version.
@@ -76,6 +154,41 @@ public record TypeId(String prefix, UUID uuid) {
         return new TypeId(prefix, uuid);
     }
 
+    /**
+     * Returns the smallest {@link TypeId} with the given prefix whose UUIDv7 has the timestamp of the
+     * {@link Instant}, truncated to milliseconds.
+     * <p> TypeIDs with the same prefix sort the same way by their {@link UUID} bits and by their textual
+     * representation, so together with {@link #max(String, Instant)}, this gives the bounds of a range
+     * query over a time window, e.g. {@code id BETWEEN min(prefix, from).toString() AND max(prefix, to).toString()}.
+     *
+     * @param prefix  the prefix to use
+     * @param instant the {@link Instant}
+     * @return the smallest {@link TypeId}
+     * @throws NullPointerException     if the prefix and/or instant is null
+     * @throws IllegalArgumentException if the prefix is invalid or the instant is before the Unix epoch or
+     *                                  after the largest timestamp of UUIDv7 (in the year 10889)
+     */
+    public static TypeId min(String prefix, Instant instant) {
+        var timestamp = TypeIdLib.timestampMillis(instant);
+        return of(prefix, new UUID(TypeIdLib.minUuidV7Msb(timestamp), TypeIdLib.minUuidV7Lsb()));
+    }
+
+    /**
+     * Returns the largest {@link TypeId} with the given prefix whose UUIDv7 has the timestamp of the
+     * {@link Instant}, truncated to milliseconds. See {@link #min(String, Instant)}.
+     *
+     * @param prefix  the prefix to use
+     * @param instant the {@link Instant}
+     * @return the largest {@link TypeId}
+     * @throws NullPointerException     if the prefix and/or instant is null
+     * @throws IllegalArgumentException if the prefix is invalid or the instant is before the Unix epoch or
+     *                                  after the largest timestamp of UUIDv7 (in the year 10889)
+     */
+    public static TypeId max(String prefix, Instant instant) {
+        var timestamp = TypeIdLib.timestampMillis(instant);
+        return of(prefix, new UUID(TypeIdLib.maxUuidV7Msb(timestamp), TypeIdLib.maxUuidV7Lsb()));
+    }
+
     /**
      * Parses the textual representation of a TypeID and returns a {@link TypeId} instance.
      *
@@ -114,6 +227,28 @@ public record TypeId(String prefix, UUID uuid) {
                 errorHandler);
     }
 
+    /**
+     * Parses the textual representation of a TypeID and executes a handler, depending on the outcome.
+     * Unlike {@link #parse(String, Function, Function)}, errors are reported as {@link ParseError} and
+     * position, so rejecting invalid input neither creates a message nor an exception.
+     *
+     * @param text           the textual representation of the TypeID
+     * @param successHandler the {@link Function} that is executed if the TypeID is valid, providing the {@link TypeId}
+     * @param errorHandler   the {@link ParseErrorHandler} that is executed if the TypeID could not be parsed
+     * @param <T>            the result type of the handler that was executed
+     * @return the result of the handler that was executed
+     * @throws NullPointerException if the successHandler and/or errorHandler is null
+     */
+    public static <T> T parseWithErrorCode(
+            final String text,
+            Function<TypeId, T> successHandler,
+            ParseErrorHandler<T> errorHandler) {
+
+        return TypeIdLib.parseWithErrorCode(text,
+                (prefix, uuid) -> successHandler.apply(of(prefix, uuid)),
+                errorHandler);
+    }
+
     /**
      * Parses the textual representation of a TypeID and returns an {@link Optional}.
      *
@@ -142,6 +277,29 @@ public record TypeId(String prefix, UUID uuid) {
                 Validated::invalid);
     }
 
+    /**
+     * Returns the timestamp of the UUIDv7 of this {@link TypeId}, read directly from its upper 48 bits.
+     * <p> For other versions of {@link UUID}, these bits have a different meaning.
+     *
+     * @return the timestamp in milliseconds since the Unix epoch
+     */
+    public long timestampMillis() {
+        return TypeIdLib.timestampMillis(uuid.getMostSignificantBits());
+    }
+
+    /**
+     * Returns the node id stored in the UUIDv7 of this {@link TypeId}, if it has been created by a
+     * {@link UuidV7Generator} that reserves the given number of bits for it.
+     *
+     * @param nodeBits the number of bits reserved for the node id
+     * @return the node id
+     * @throws IllegalArgumentException if the number of bits is out of range
+     * @see UuidV7Generator#nodeId(long, int)
+     */
+    public long nodeId(int nodeBits) {
+        return UuidV7Generator.nodeId(uuid.getLeastSignificantBits(), nodeBits);
+    }
+
     /**
      * Returns the textual representation of this {@link TypeId}.
      *
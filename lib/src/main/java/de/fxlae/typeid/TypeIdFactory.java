@@ -0,0 +1,258 @@
+package de.fxlae.typeid;
+
+import de.fxlae.typeid.lib.PrefixRegistry;
+import de.fxlae.typeid.lib.TypeIdLib;
+import de.fxlae.typeid.lib.UuidV7Generator;
+import de.fxlae.typeid.util.Validated;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * A factory for {@link TypeId}s with one fixed prefix, obtained via {@link TypeId#factory(String)}.
+ * <p> The prefix is validated once, when the factory is created. It is kept in its encoded form
+ * (including the separator), so that generating, encoding and parsing don't have to do any
+ * per-call prefix work. Parsing is strict: TypeIDs with any other prefix are rejected.
+ * <p> New TypeIDs are based on the {@link UuidV7Generator} of the library, or on the one passed to
+ * {@link TypeId#factory(String, UuidV7Generator)}, e.g. to store a node id in each of them.
+ * <p> Instances are immutable and thread-safe.
+ */
+public final class TypeIdFactory {
+
+    private static final int SUFFIX_LENGTH = 26;
+
+    private final String prefix;
+    // the prefix followed by the separator, or empty if there is no prefix
+    private final String encodedPrefix;
+    private final char[] encodedPrefixChars;
+    private final byte[] encodedPrefixBytes;
+    // built once, so that rejecting TypeIDs with a different prefix doesn't build a message each time
+    private final String prefixMismatchMessage;
+    private final UuidV7Generator generator;
+
+    TypeIdFactory(final String prefix) {
+        this(prefix, TypeIdLib.generator());
+    }
+
+    TypeIdFactory(final String prefix, final UuidV7Generator generator) {
+        this.generator = Objects.requireNonNull(generator);
+        this.prefix = PrefixRegistry.shared().intern(prefix);
+        this.encodedPrefix = this.prefix.isEmpty() ? "" : this.prefix + "_";
+        this.encodedPrefixChars = encodedPrefix.toCharArray();
+        this.encodedPrefixBytes = encodedPrefix.getBytes(StandardCharsets.US_ASCII);
+        this.prefixMismatchMessage = this.prefix.isEmpty()
+                ? "TypeId must not have a prefix"
+                : "TypeId must have the prefix '" + this.prefix + "'";
+    }
+
+    /**
+     * Returns the prefix of this factory.
+     *
+     * @return the prefix, might be an empty string
+     */
+    public String prefix() {
+        return prefix;
+    }
+
+    /**
+     * Creates a new {@link TypeId} with the prefix of this factory, based on UUIDv7.
+     *
+     * @return the new {@link TypeId}
+     */
+    public TypeId generate() {
+        return new TypeId(prefix, generator.generate());
+    }
+
+    /**
+     * Creates the textual representation of a new TypeID with the prefix of this factory, based on UUIDv7,
+     * without creating an intermediary {@link TypeId}.
+     *
+     * @return the textual representation of the new TypeID
+     */
+    public String generateString() {
+        return toString(generator.generate());
+    }
+
+    /**
+     * Creates a new {@link TypeId} with the prefix of this factory, based on the given {@link UUID}.
+     *
+     * @param uuid the {@link UUID} to use
+     * @return the new {@link TypeId}
+     * @throws NullPointerException if the UUID is null
+     */
+    public TypeId of(final UUID uuid) {
+        return new TypeId(prefix, uuid);
+    }
+
+    /**
+     * Returns the textual representation of the TypeID with the prefix of this factory and the given {@link UUID}.
+     *
+     * @param uuid the {@link UUID} to use
+     * @return the textual representation
+     * @throws NullPointerException if the UUID is null
+     */
+    public String toString(final UUID uuid) {
+        final byte[] bytes = new byte[encodedPrefixBytes.length + SUFFIX_LENGTH];
+        encodeTo(uuid, bytes, 0);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Writes the textual representation of the TypeID with the prefix of this factory and the given
+     * {@link UUID} into the array.
+     *
+     * @param uuid   the {@link UUID} to use
+     * @param dst    the destination
+     * @param offset the index of the first char to write
+     * @return the number of chars written
+     * @throws NullPointerException      if the UUID and/or destination is null
+     * @throws IndexOutOfBoundsException if the destination is too small
+     */
+    public int encodeTo(final UUID uuid, final char[] dst, final int offset) {
+        final int length = encodedPrefixChars.length + SUFFIX_LENGTH;
+        Objects.checkFromIndexSize(offset, length, dst.length);
+        System.arraycopy(encodedPrefixChars, 0, dst, offset, encodedPrefixChars.length);
+        TypeIdLib.encodeSuffix(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dst, offset + encodedPrefixChars.length);
+        return length;
+    }
+
+    /**
+     * Writes the ASCII encoded textual representation of the TypeID with the prefix of this factory and
+     * the given {@link UUID} into the array.
+     *
+     * @param uuid   the {@link UUID} to use
+     * @param dst    the destination
+     * @param offset the index of the first byte to write
+     * @return the number of bytes written
+     * @throws NullPointerException      if the UUID and/or destination is null
+     * @throws IndexOutOfBoundsException if the destination is too small
+     */
+    public int encodeTo(final UUID uuid, final byte[] dst, final int offset) {
+        final int length = encodedPrefixBytes.length + SUFFIX_LENGTH;
+        Objects.checkFromIndexSize(offset, length, dst.length);
+        System.arraycopy(encodedPrefixBytes, 0, dst, offset, encodedPrefixBytes.length);
+        TypeIdLib.encodeSuffix(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dst, offset + encodedPrefixBytes.length);
+        return length;
+    }
+
+    /**
+     * Writes the ASCII encoded textual representation of the TypeID with the prefix of this factory and
+     * the given {@link UUID} into the buffer, starting at its current position, which is advanced.
+     *
+     * @param uuid the {@link UUID} to use
+     * @param dst  the destination
+     * @return the number of bytes written
+     * @throws NullPointerException    if the UUID and/or destination is null
+     * @throws BufferOverflowException if the destination has not enough remaining space
+     */
+    public int encodeTo(final UUID uuid, final ByteBuffer dst) {
+        final int length = encodedPrefixBytes.length + SUFFIX_LENGTH;
+        if (dst.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        if (dst.hasArray()) {
+            encodeTo(uuid, dst.array(), dst.arrayOffset() + dst.position());
+            dst.position(dst.position() + length);
+        } else {
+            TypeIdLib.encode(prefix, uuid, dst);
+        }
+        return length;
+    }
+
+    /**
+     * Parses the textual representation of a TypeID with the prefix of this factory.
+     *
+     * @param text the textual representation
+     * @return the new {@link TypeId}
+     * @throws IllegalArgumentException if the text is invalid or has a different prefix
+     */
+    public TypeId parse(final CharSequence text) {
+        return parse(
+                text,
+                Function.identity(),
+                message -> {
+                    throw new IllegalArgumentException(message);
+                });
+    }
+
+    /**
+     * Parses the textual representation of a TypeID with the prefix of this factory and executes a
+     * handler {@link Function}, depending on the outcome. Both provided functions must have the same return type.
+     *
+     * @param text           the textual representation of the TypeID
+     * @param successHandler the {@link Function} that is executed if the TypeID is valid, providing the {@link TypeId}
+     * @param errorHandler   the {@link Function} that is executed if the TypeID could not be parsed, providing the error message
+     * @param <T>            the result type of the handler {@link Function} that was executed
+     * @return the result of the handler {@link Function} that was executed
+     * @throws NullPointerException if the successHandler and/or errorHandler is null
+     */
+    public <T> T parse(
+            final CharSequence text,
+            final Function<TypeId, T> successHandler,
+            final Function<String, T> errorHandler) {
+
+        Objects.requireNonNull(successHandler);
+        Objects.requireNonNull(errorHandler);
+
+        if (text == null || text.length() == 0) {
+            return errorHandler.apply("Provided TypeId must not be null or empty");
+        }
+
+        final int prefixLength = encodedPrefix.length();
+        if (!matchesPrefix(text, prefixLength)) {
+            return errorHandler.apply(prefixMismatchMessage);
+        }
+
+        final String suffixValidation = TypeIdLib.validateSuffix(text, prefixLength);
+        if (suffixValidation != TypeIdLib.VALID_REF) {
+            return errorHandler.apply(suffixValidation);
+        }
+
+        return successHandler.apply(new TypeId(prefix, TypeIdLib.decodeSuffix(text, prefixLength)));
+    }
+
+    /**
+     * Parses the textual representation of a TypeID with the prefix of this factory and returns an {@link Optional}.
+     *
+     * @param text the textual representation of the TypeID
+     * @return an {@link Optional} containing a {@link TypeId} or an empty {@link Optional} in case of validation errors
+     */
+    public Optional<TypeId> parseToOptional(final CharSequence text) {
+        return parse(text, Optional::of, error -> Optional.empty());
+    }
+
+    /**
+     * Parses the textual representation of a TypeID with the prefix of this factory and returns a {@link Validated}.
+     *
+     * @param text the textual representation of the TypeID
+     * @return a valid {@link Validated} containing a {@link TypeId} or an invalid {@link Validated} with an error message
+     */
+    public Validated<TypeId> parseToValidated(final CharSequence text) {
+        return parse(text, Validated::valid, Validated::invalid);
+    }
+
+    @Override
+    public String toString() {
+        return "TypeIdFactory[prefix=" + prefix + "]";
+    }
+
+    private boolean matchesPrefix(final CharSequence text, final int prefixLength) {
+        if (text.length() < prefixLength) {
+            return false;
+        }
+        if (text instanceof String string) {
+            return string.regionMatches(0, encodedPrefix, 0, prefixLength);
+        }
+        for (int i = 0; i < prefixLength; i++) {
+            if (text.charAt(i) != encodedPrefixChars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,264 @@
+package de.fxlae.typeid;
+
+import de.fxlae.typeid.lib.PrefixRegistry;
+import de.fxlae.typeid.lib.TypeIdConsumer;
+import de.fxlae.typeid.lib.TypeIdLib;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Encodes TypeIDs as binary keys that sort like their textual representation, e.g. for key-value or LSM stores
+ * that compare keys byte by byte (as unsigned bytes).
+ * <p> A key consists of the ASCII bytes of the prefix, a {@code 0x00} terminator and the 16 big-endian bytes of
+ * the {@link UUID}, so it takes {@code prefix.length() + 17} bytes instead of {@code prefix.length() + 27}.
+ * Comparing two keys gives the same result as comparing the textual representations of the TypeIDs: the
+ * terminator sorts before any prefix character, just like the separator and the suffix sort before any
+ * character that could continue the prefix, and the base32 suffix sorts like the unsigned bits it encodes.
+ * <p> All keys with a given prefix lie between {@link #lowerBound(String)} and {@link #upperBound(String)}.
+ * Together with {@link TypeId#min(String, java.time.Instant)} and {@link TypeId#max(String, java.time.Instant)},
+ * this turns time windows into range scans.
+ */
+public final class TypeIdKeyCodec {
+
+    private static final int UUID_BYTES = 16;
+    private static final byte TERMINATOR = 0x00;
+
+    private static final VarHandle LONG_BIG_ENDIAN = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private TypeIdKeyCodec() {
+    }
+
+    /**
+     * Returns the length of the key of a TypeID with the given prefix.
+     *
+     * @param prefix the prefix
+     * @return the length in bytes
+     * @throws NullPointerException if the prefix is null
+     */
+    public static int encodedLength(final String prefix) {
+        return prefix.length() + 1 + UUID_BYTES;
+    }
+
+    /**
+     * Encodes the {@link TypeId} as a new key.
+     *
+     * @param typeId the {@link TypeId}
+     * @return the key
+     * @throws NullPointerException if the {@link TypeId} is null
+     */
+    public static byte[] encode(final TypeId typeId) {
+        final String prefix = typeId.prefix();
+        final byte[] key = new byte[encodedLength(prefix)];
+        write(prefix, typeId.uuid().getMostSignificantBits(), typeId.uuid().getLeastSignificantBits(), key, 0);
+        return key;
+    }
+
+    /**
+     * Encodes the TypeID given by its parts as a key into the array.
+     *
+     * @param prefix the prefix, might be an empty string
+     * @param msb    the most significant bits of the {@link UUID}
+     * @param lsb    the least significant bits of the {@link UUID}
+     * @param dst    the destination
+     * @param offset the index in the destination to start writing at
+     * @return the number of bytes written
+     * @throws NullPointerException      if the prefix and/or destination is null
+     * @throws IllegalArgumentException  if the prefix is invalid
+     * @throws IndexOutOfBoundsException if the destination is too small
+     */
+    public static int encode(final String prefix, final long msb, final long lsb, final byte[] dst, final int offset) {
+        TypeIdLib.requireValidPrefix(prefix);
+        final int length = encodedLength(prefix);
+        Objects.checkFromIndexSize(offset, length, dst.length);
+        write(prefix, msb, lsb, dst, offset);
+        return length;
+    }
+
+    /**
+     * Encodes the TypeID given by its parts as a key at the buffer's current position and advances it.
+     * The byte order of the buffer does not matter.
+     *
+     * @param prefix the prefix, might be an empty string
+     * @param msb    the most significant bits of the {@link UUID}
+     * @param lsb    the least significant bits of the {@link UUID}
+     * @param dst    the destination
+     * @return the number of bytes written
+     * @throws NullPointerException     if the prefix and/or destination is null
+     * @throws IllegalArgumentException if the prefix is invalid
+     * @throws BufferOverflowException  if the destination has not enough remaining bytes
+     */
+    public static int encode(final String prefix, final long msb, final long lsb, final ByteBuffer dst) {
+        TypeIdLib.requireValidPrefix(prefix);
+        final int length = encodedLength(prefix);
+        if (dst.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        final int position = dst.position();
+        if (dst.hasArray()) {
+            write(prefix, msb, lsb, dst.array(), dst.arrayOffset() + position);
+        } else {
+            int pos = position;
+            for (int i = 0; i < prefix.length(); i++) {
+                dst.put(pos++, (byte) prefix.charAt(i));
+            }
+            dst.put(pos++, TERMINATOR);
+            final boolean bigEndian = dst.order() == ByteOrder.BIG_ENDIAN;
+            dst.putLong(pos, bigEndian ? msb : Long.reverseBytes(msb));
+            dst.putLong(pos + 8, bigEndian ? lsb : Long.reverseBytes(lsb));
+        }
+        dst.position(position + length);
+        return length;
+    }
+
+    /**
+     * Decodes a key into a {@link TypeId}.
+     *
+     * @param src    the source
+     * @param offset the index of the first byte of the key
+     * @param length the length of the key
+     * @return the {@link TypeId}
+     * @throws NullPointerException      if the source is null
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the source
+     * @throws IllegalArgumentException  if the range does not contain a valid key
+     */
+    public static TypeId decode(final byte[] src, final int offset, final int length) {
+        final int end = prefixEnd(src, offset, length);
+        return new TypeId(prefix(src, offset, end), new UUID(
+                (long) LONG_BIG_ENDIAN.get(src, end + 1),
+                (long) LONG_BIG_ENDIAN.get(src, end + 9)));
+    }
+
+    /**
+     * Decodes a key and passes its parts to the consumer. For prefixes that are registered in the
+     * {@link PrefixRegistry#shared() shared} {@link PrefixRegistry}, nothing is allocated.
+     *
+     * @param src      the source
+     * @param offset   the index of the first byte of the key
+     * @param length   the length of the key
+     * @param consumer the consumer of the parts
+     * @throws NullPointerException      if the source and/or consumer is null
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the source
+     * @throws IllegalArgumentException  if the range does not contain a valid key
+     */
+    public static void decode(final byte[] src, final int offset, final int length, final TypeIdConsumer consumer) {
+        Objects.requireNonNull(consumer);
+        final int end = prefixEnd(src, offset, length);
+        consumer.accept(
+                prefix(src, offset, end),
+                (long) LONG_BIG_ENDIAN.get(src, end + 1),
+                (long) LONG_BIG_ENDIAN.get(src, end + 9));
+    }
+
+    /**
+     * Decodes the key between the buffer's position and limit into a {@link TypeId}. The key is read in place,
+     * regardless of the byte order of the buffer, and the position is not changed.
+     *
+     * @param src the source
+     * @return the {@link TypeId}
+     * @throws NullPointerException     if the source is null
+     * @throws IllegalArgumentException if the remaining bytes are not a valid key
+     */
+    public static TypeId decode(final ByteBuffer src) {
+        if (src.hasArray()) {
+            return decode(src.array(), src.arrayOffset() + src.position(), src.remaining());
+        }
+        final int offset = src.position();
+        final int end = src.limit() - UUID_BYTES - 1;
+        if (end < offset || src.get(end) != TERMINATOR) {
+            throw new IllegalArgumentException("Invalid TypeId key, must end with the terminator and 16 bytes");
+        }
+        return new TypeId(prefix(src, offset, end), new UUID(getLongBigEndian(src, end + 1), getLongBigEndian(src, end + 9)));
+    }
+
+    /**
+     * Returns the smallest key with the given prefix, inclusive.
+     *
+     * @param prefix the prefix
+     * @return the key
+     * @throws NullPointerException     if the prefix is null
+     * @throws IllegalArgumentException if the prefix is invalid
+     */
+    public static byte[] lowerBound(final String prefix) {
+        return bound(prefix, TERMINATOR);
+    }
+
+    /**
+     * Returns a key that is greater than all keys with the given prefix and smaller than all keys with
+     * greater prefixes, exclusive.
+     *
+     * @param prefix the prefix
+     * @return the key
+     * @throws NullPointerException     if the prefix is null
+     * @throws IllegalArgumentException if the prefix is invalid
+     */
+    public static byte[] upperBound(final String prefix) {
+        return bound(prefix, (byte) (TERMINATOR + 1));
+    }
+
+    private static byte[] bound(final String prefix, final byte last) {
+        TypeIdLib.requireValidPrefix(prefix);
+        final byte[] key = new byte[prefix.length() + 1];
+        for (int i = 0; i < prefix.length(); i++) {
+            key[i] = (byte) prefix.charAt(i);
+        }
+        key[prefix.length()] = last;
+        return key;
+    }
+
+    private static void write(final String prefix, final long msb, final long lsb, final byte[] dst, final int offset) {
+        int pos = offset;
+        for (int i = 0; i < prefix.length(); i++) {
+            dst[pos++] = (byte) prefix.charAt(i);
+        }
+        dst[pos++] = TERMINATOR;
+        LONG_BIG_ENDIAN.set(dst, pos, msb);
+        LONG_BIG_ENDIAN.set(dst, pos + 8, lsb);
+    }
+
+    // returns the index of the terminator, which must be followed by exactly the 16 bytes of the UUID
+    private static int prefixEnd(final byte[] src, final int offset, final int length) {
+        Objects.checkFromIndexSize(offset, length, src.length);
+        final int end = offset + length - UUID_BYTES - 1;
+        if (end < offset || src[end] != TERMINATOR) {
+            throw new IllegalArgumentException("Invalid TypeId key, must end with the terminator and 16 bytes");
+        }
+        return end;
+    }
+
+    private static String prefix(final ByteBuffer src, final int start, final int end) {
+        final PrefixRegistry registry = PrefixRegistry.shared();
+        final int ordinal = registry.ordinal(src, start, end);
+        if (ordinal >= 0) {
+            return registry.prefix(ordinal);
+        }
+        final byte[] bytes = new byte[end - start];
+        src.get(start, bytes);
+        final String prefix = new String(bytes, StandardCharsets.ISO_8859_1);
+        TypeIdLib.requireValidPrefix(prefix);
+        return prefix;
+    }
+
+    private static long getLongBigEndian(final ByteBuffer src, final int index) {
+        final long value = src.getLong(index);
+        return src.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value);
+    }
+
+    private static String prefix(final byte[] src, final int start, final int end) {
+        final PrefixRegistry registry = PrefixRegistry.shared();
+        final int ordinal = registry.ordinal(src, start, end);
+        if (ordinal >= 0) {
+            return registry.prefix(ordinal);
+        }
+        // unknown prefixes are validated, which also rejects a second terminator within the prefix
+        final String prefix = new String(src, start, end - start, StandardCharsets.ISO_8859_1);
+        TypeIdLib.requireValidPrefix(prefix);
+        return prefix;
+    }
+}
@@ -0,0 +1,456 @@
+package de.fxlae.typeid;
+
+import de.fxlae.typeid.lib.PrefixRegistry;
+import de.fxlae.typeid.lib.TypeIdConsumer;
+import de.fxlae.typeid.lib.TypeIdLib;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * An append-only log of UUIDv7 based TypeIDs, stored in a memory-mapped file.
+ * <p> Each TypeID takes a record of exactly 16 bytes, the big-endian bits of its {@link UUID}. The version
+ * and variant bits, which are the same for every UUIDv7, are replaced with the ordinal of the prefix in a
+ * dictionary of up to 63 distinct non-empty prefixes, which is kept in the header of the file.
+ * <p> Since TypeIDs created with {@link TypeId#generate(String)} are ordered by time, the log requires the
+ * timestamps of appended TypeIDs not to decrease. This allows to find time ranges with a binary search over
+ * the mapped records, without reading or decoding anything else. Opening a log maps the file but does not
+ * read the records, so it takes the same time regardless of its size.
+ * <p> Appended records become visible to other processes mapping the same file immediately, but are only
+ * guaranteed to be durable after {@link #force()}. A log opened with {@link #openReadOnly(Path)} sees the
+ * records that existed when it was opened and can be read by multiple threads concurrently. Otherwise,
+ * instances are not thread-safe.
+ */
+public final class TypeIdLog implements Closeable {
+
+    // "TYPEIDLG"
+    private static final long MAGIC = 0x5459504549444C47L;
+    private static final int VERSION = 1;
+
+    // header: magic (8 bytes), version (4), number of non-empty prefixes (4), number of records (8), followed
+    // by the dictionary with the length (1) and the ASCII bytes of each prefix
+    private static final int VERSION_OFFSET = 8;
+    private static final int PREFIX_COUNT_OFFSET = 12;
+    private static final int SIZE_OFFSET = 16;
+    private static final int DICTIONARY_OFFSET = 24;
+    private static final int HEADER_SIZE = 4096;
+
+    private static final int RECORD_SIZE = 16;
+    // the prefix ordinal is stored in the 4 version bits of the msb and the 2 variant bits of the lsb
+    private static final int MAX_PREFIXES = 64;
+    private static final long VERSION_MASK = 0xF000L;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_MASK = 0xC000_0000_0000_0000L;
+    private static final long VARIANT_RFC = 0x8000_0000_0000_0000L;
+
+    // a single mapping is limited to 2 GiB, so the records are mapped in segments of 2^26 records (1 GiB)
+    static final int DEFAULT_SEGMENT_SHIFT = 26;
+    // the mapping of the last segment grows by doubling, starting at 64 KiB
+    private static final int MIN_MAPPED_RECORDS = 4096;
+
+    private final FileChannel channel;
+    private final FileChannel.MapMode mode;
+    private final int segmentShift;
+    private final long segmentMask;
+    private final MappedByteBuffer header;
+    private final PrefixRegistry prefixes = new PrefixRegistry(MAX_PREFIXES);
+
+    private MappedByteBuffer[] segments = new MappedByteBuffer[1];
+    private int dictionaryEnd = DICTIONARY_OFFSET;
+    private long size;
+    private long lastTimestamp;
+    private boolean closed;
+
+    private TypeIdLog(final FileChannel channel, final boolean readOnly, final int segmentShift) throws IOException {
+        this.channel = channel;
+        this.mode = readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE;
+        this.segmentShift = segmentShift;
+        this.segmentMask = (1L << segmentShift) - 1;
+        final long fileSize = channel.size();
+        if (fileSize == 0 && !readOnly) {
+            this.header = channel.map(mode, 0, HEADER_SIZE);
+            header.putLong(0, MAGIC);
+            header.putInt(VERSION_OFFSET, VERSION);
+            return;
+        }
+        if (fileSize < HEADER_SIZE) {
+            throw new IOException("Not a TypeId log, file is too small");
+        }
+        this.header = channel.map(mode, 0, HEADER_SIZE);
+        if (header.getLong(0) != MAGIC) {
+            throw new IOException("Not a TypeId log, magic number does not match");
+        }
+        if (header.getInt(VERSION_OFFSET) != VERSION) {
+            throw new IOException("Unsupported TypeId log version " + header.getInt(VERSION_OFFSET));
+        }
+        readDictionary();
+        this.size = header.getLong(SIZE_OFFSET);
+        if (size < 0 || size > (fileSize - HEADER_SIZE) / RECORD_SIZE) {
+            throw new IOException("Corrupt TypeId log, " + size + " records do not fit into the file");
+        }
+        for (long segment = 0; segment << segmentShift < size; segment++) {
+            map((int) segment, Math.min(size - (segment << segmentShift), 1L << segmentShift));
+        }
+        this.lastTimestamp = size > 0 ? timestampMillis(size - 1) : 0;
+    }
+
+    /**
+     * Opens the log in the given file for reading and appending, creating the file if it does not exist.
+     *
+     * @param path the path of the file
+     * @return the opened {@link TypeIdLog}
+     * @throws IOException if the file can't be opened or is not a valid log
+     */
+    public static TypeIdLog open(final Path path) throws IOException {
+        return open(path, false, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    /**
+     * Opens the existing log in the given file for reading only.
+     *
+     * @param path the path of the file
+     * @return the opened {@link TypeIdLog}
+     * @throws IOException if the file can't be opened or is not a valid log
+     */
+    public static TypeIdLog openReadOnly(final Path path) throws IOException {
+        return open(path, true, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    static TypeIdLog open(final Path path, final boolean readOnly, final int segmentShift) throws IOException {
+        final FileChannel channel = readOnly
+                ? FileChannel.open(path, StandardOpenOption.READ)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        try {
+            return new TypeIdLog(channel, readOnly, segmentShift);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends the {@link TypeId} to the end of the log.
+     *
+     * @param typeId the {@link TypeId}
+     * @return the index of the new record
+     * @throws NullPointerException     if the {@link TypeId} is null
+     * @throws IllegalArgumentException if the {@link UUID} is not a UUIDv7 or its timestamp is before the
+     *                                  timestamp of the last record
+     * @throws IllegalStateException    if the log is closed or read-only, or the prefix is new and the log
+     *                                  already holds the maximum number of prefixes
+     * @throws IOException              if the file can't be extended
+     */
+    public long append(final TypeId typeId) throws IOException {
+        return append(typeId.prefix(), typeId.uuid().getMostSignificantBits(), typeId.uuid().getLeastSignificantBits());
+    }
+
+    /**
+     * Appends the TypeID given by its parts to the end of the log.
+     *
+     * @param prefix the prefix, might be an empty string
+     * @param msb    the most significant bits of the {@link UUID}
+     * @param lsb    the least significant bits of the {@link UUID}
+     * @return the index of the new record
+     * @throws NullPointerException     if the prefix is null
+     * @throws IllegalArgumentException if the prefix is invalid, the {@link UUID} is not a UUIDv7 or its
+     *                                  timestamp is before the timestamp of the last record
+     * @throws IllegalStateException    if the log is closed or read-only, or the prefix is new and the log
+     *                                  already holds the maximum number of prefixes
+     * @throws IOException              if the file can't be extended
+     */
+    public long append(final String prefix, final long msb, final long lsb) throws IOException {
+        ensureOpen();
+        if (mode == FileChannel.MapMode.READ_ONLY) {
+            throw new IllegalStateException("TypeId log is read-only");
+        }
+        if ((msb & VERSION_MASK) != VERSION_7 || (lsb & VARIANT_MASK) != VARIANT_RFC) {
+            throw new IllegalArgumentException("Only UUIDv7 can be appended to a TypeId log");
+        }
+        final long timestamp = msb >>> 16;
+        if (timestamp < lastTimestamp) {
+            throw new IllegalArgumentException("Timestamp must not be before the timestamp of the last record");
+        }
+        int ordinal = prefixes.ordinal(Objects.requireNonNull(prefix));
+        if (ordinal < 0) {
+            ordinal = addPrefix(prefix);
+        }
+        final long index = size;
+        final int segment = (int) (index >>> segmentShift);
+        final int offset = recordOffset(index);
+        MappedByteBuffer buffer = segment < segments.length ? segments[segment] : null;
+        if (buffer == null || offset >= buffer.capacity()) {
+            buffer = grow(segment, buffer);
+        }
+        buffer.putLong(offset, (msb & ~VERSION_MASK) | ((long) (ordinal & 0xF) << 12));
+        buffer.putLong(offset + 8, (lsb & ~VARIANT_MASK) | ((long) (ordinal >>> 4) << 62));
+        // the record is written before it's counted, so a reader never sees a partial record
+        size = index + 1;
+        header.putLong(SIZE_OFFSET, size);
+        lastTimestamp = timestamp;
+        return index;
+    }
+
+    /**
+     * Returns the number of records in this log.
+     *
+     * @return the number of records
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the record at the given index as a {@link TypeId}.
+     *
+     * @param index the index of the record
+     * @return the {@link TypeId}
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalStateException     if the log is closed
+     */
+    public TypeId get(final long index) {
+        return new TypeId(prefix(index), new UUID(msb(index), lsb(index)));
+    }
+
+    /**
+     * Returns the prefix of the record at the given index.
+     *
+     * @param index the index of the record
+     * @return the prefix
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalStateException     if the log is closed
+     */
+    public String prefix(final long index) {
+        final MappedByteBuffer buffer = segment(index);
+        final int offset = recordOffset(index);
+        return prefixes.prefix(ordinal(buffer.getLong(offset), buffer.getLong(offset + 8)));
+    }
+
+    /**
+     * Returns the most significant bits of the {@link UUID} of the record at the given index.
+     *
+     * @param index the index of the record
+     * @return the most significant bits
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalStateException     if the log is closed
+     */
+    public long msb(final long index) {
+        return restoreMsb(segment(index).getLong(recordOffset(index)));
+    }
+
+    /**
+     * Returns the least significant bits of the {@link UUID} of the record at the given index.
+     *
+     * @param index the index of the record
+     * @return the least significant bits
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalStateException     if the log is closed
+     */
+    public long lsb(final long index) {
+        return restoreLsb(segment(index).getLong(recordOffset(index) + 8));
+    }
+
+    /**
+     * Returns the UUIDv7 timestamp of the record at the given index.
+     *
+     * @param index the index of the record
+     * @return the timestamp in milliseconds since the Unix epoch
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalStateException     if the log is closed
+     */
+    public long timestampMillis(final long index) {
+        // the timestamp bits are stored unchanged
+        return segment(index).getLong(recordOffset(index)) >>> 16;
+    }
+
+    /**
+     * Returns the index of the first record with a timestamp at or after the given one, using a binary search.
+     *
+     * @param timestampMillis the timestamp in milliseconds since the Unix epoch
+     * @return the index of the first such record, or {@link #size()} if there is none
+     * @throws IllegalStateException if the log is closed
+     */
+    public long lowerBound(final long timestampMillis) {
+        ensureOpen();
+        long low = 0;
+        long high = size;
+        while (low < high) {
+            final long mid = (low + high) >>> 1;
+            if (segments[(int) (mid >>> segmentShift)].getLong(recordOffset(mid)) >>> 16 < timestampMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Performs the action for each record, in the order they were appended.
+     *
+     * @param action the action
+     * @throws NullPointerException  if the action is null
+     * @throws IllegalStateException if the log is closed
+     */
+    public void forEach(final TypeIdConsumer action) {
+        forEach(0, size, action);
+    }
+
+    /**
+     * Performs the action for each record in the given range of indexes, in the order they were appended.
+     *
+     * @param fromIndex the index of the first record, inclusive
+     * @param toIndex   the index of the last record, exclusive
+     * @param action    the action
+     * @throws NullPointerException      if the action is null
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     * @throws IllegalStateException     if the log is closed
+     */
+    public void forEach(final long fromIndex, final long toIndex, final TypeIdConsumer action) {
+        Objects.requireNonNull(action);
+        ensureOpen();
+        Objects.checkFromToIndex(fromIndex, toIndex, size);
+        for (long index = fromIndex; index < toIndex; index++) {
+            final MappedByteBuffer buffer = segments[(int) (index >>> segmentShift)];
+            final int offset = recordOffset(index);
+            final long storedMsb = buffer.getLong(offset);
+            final long storedLsb = buffer.getLong(offset + 8);
+            action.accept(prefixes.prefix(ordinal(storedMsb, storedLsb)), restoreMsb(storedMsb), restoreLsb(storedLsb));
+        }
+    }
+
+    /**
+     * Performs the action for each record with a timestamp in the given range, in the order they were appended.
+     *
+     * @param fromMillis the start of the range in milliseconds since the Unix epoch, inclusive
+     * @param toMillis   the end of the range in milliseconds since the Unix epoch, exclusive
+     * @param action     the action
+     * @throws NullPointerException  if the action is null
+     * @throws IllegalStateException if the log is closed
+     */
+    public void forEachInTimeRange(final long fromMillis, final long toMillis, final TypeIdConsumer action) {
+        final long fromIndex = lowerBound(fromMillis);
+        forEach(fromIndex, Math.max(fromIndex, lowerBound(toMillis)), action);
+    }
+
+    /**
+     * Forces all appended records to be written to the storage device.
+     *
+     * @throws IllegalStateException if the log is closed
+     * @throws IOException           if an I/O error occurs
+     */
+    public void force() throws IOException {
+        ensureOpen();
+        if (mode == FileChannel.MapMode.READ_WRITE) {
+            for (MappedByteBuffer segment : segments) {
+                if (segment != null) {
+                    segment.force();
+                }
+            }
+            header.force();
+        }
+    }
+
+    /**
+     * Closes this log. Appended records that were not {@link #force() forced} are still written to the
+     * file by the operating system.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            // the mappings stay valid until they are garbage collected, but they must not be used anymore
+            segments = null;
+            channel.close();
+        }
+    }
+
+    private void readDictionary() throws IOException {
+        final int count = header.getInt(PREFIX_COUNT_OFFSET);
+        if (count < 0 || count >= MAX_PREFIXES) {
+            throw new IOException("Corrupt TypeId log, illegal number of prefixes " + count);
+        }
+        for (int ordinal = 1; ordinal <= count; ordinal++) {
+            final int length = header.get(dictionaryEnd) & 0xFF;
+            final byte[] bytes = new byte[length];
+            header.get(dictionaryEnd + 1, bytes);
+            final String prefix = new String(bytes, StandardCharsets.US_ASCII);
+            try {
+                if (length == 0 || prefixes.register(prefix) != ordinal) {
+                    throw new IOException("Corrupt TypeId log, duplicate prefix " + prefix);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt TypeId log, " + e.getMessage(), e);
+            }
+            dictionaryEnd += 1 + length;
+        }
+    }
+
+    private int addPrefix(final String prefix) {
+        if (prefixes.size() == MAX_PREFIXES) {
+            TypeIdLib.requireValidPrefix(prefix);
+            throw new IllegalStateException("TypeId log can't hold more than " + (MAX_PREFIXES - 1) + " prefixes");
+        }
+        final int ordinal = prefixes.register(prefix);
+        // 63 prefixes with at most 63 characters fit into the header
+        final byte[] bytes = prefix.getBytes(StandardCharsets.US_ASCII);
+        header.put(dictionaryEnd, (byte) bytes.length);
+        header.put(dictionaryEnd + 1, bytes);
+        header.putInt(PREFIX_COUNT_OFFSET, ordinal);
+        dictionaryEnd += 1 + bytes.length;
+        return ordinal;
+    }
+
+    private MappedByteBuffer grow(final int segment, final MappedByteBuffer current) throws IOException {
+        final long mapped = current == null ? 0 : current.capacity() / RECORD_SIZE;
+        return map(segment, Math.min(Math.max(MIN_MAPPED_RECORDS, mapped * 2), 1L << segmentShift));
+    }
+
+    private MappedByteBuffer map(final int segment, final long records) throws IOException {
+        if (segment >= segments.length) {
+            segments = Arrays.copyOf(segments, Math.max(segment + 1, segments.length * 2));
+        }
+        final long position = HEADER_SIZE + ((long) segment << segmentShift) * RECORD_SIZE;
+        // mapping beyond the end of the file extends it
+        final MappedByteBuffer buffer = channel.map(mode, position, records * RECORD_SIZE);
+        segments[segment] = buffer;
+        return buffer;
+    }
+
+    private MappedByteBuffer segment(final long index) {
+        ensureOpen();
+        Objects.checkIndex(index, size);
+        return segments[(int) (index >>> segmentShift)];
+    }
+
+    private int recordOffset(final long index) {
+        return (int) (index & segmentMask) * RECORD_SIZE;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("TypeId log is closed");
+        }
+    }
+
+    private static int ordinal(final long storedMsb, final long storedLsb) {
+        return (int) ((storedMsb & VERSION_MASK) >>> 12) | (int) (storedLsb >>> 62) << 4;
+    }
+
+    private static long restoreMsb(final long storedMsb) {
+        return (storedMsb & ~VERSION_MASK) | VERSION_7;
+    }
+
+    private static long restoreLsb(final long storedLsb) {
+        return (storedLsb & ~VARIANT_MASK) | VARIANT_RFC;
+    }
+}
@@ -0,0 +1,204 @@
+package de.fxlae.typeid;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * A map with TypeIDs as keys that stores the keys without any per-entry objects.
+ * <p> The keys are kept in an open addressing hash table of parallel primitive arrays: the most and
+ * least significant bits of the {@link UUID} and the ordinal of the prefix. Entries can be put, looked
+ * up and removed by the parts of their key or by its textual representation, without creating a
+ * {@link TypeId}. The map can hold up to 1023 distinct non-empty prefixes. Values must not be null.
+ * <p> Instances are not thread-safe.
+ *
+ * @param <V> the type of the values
+ */
+public final class TypeIdMap<V> {
+
+    private final TypeIdTable table;
+
+    /**
+     * Creates a new, empty map.
+     */
+    public TypeIdMap() {
+        this(0);
+    }
+
+    /**
+     * Creates a new, empty map that can hold the given number of entries without growing.
+     *
+     * @param expectedSize the expected number of entries
+     * @throws IllegalArgumentException if the expected size is negative
+     */
+    public TypeIdMap(final int expectedSize) {
+        this.table = new TypeIdTable(expectedSize, true);
+    }
+
+    /**
+     * Associates the value with the {@link TypeId}.
+     *
+     * @param typeId the {@link TypeId}
+     * @param value  the value
+     * @return the previous value, or {@code null} if there was none
+     * @throws NullPointerException  if the {@link TypeId} and/or value is null
+     * @throws IllegalStateException if the prefix is new and the map already holds the maximum number of prefixes
+     */
+    public V put(final TypeId typeId, final V value) {
+        return put(typeId.prefix(), typeId.uuid().getMostSignificantBits(), typeId.uuid().getLeastSignificantBits(), value);
+    }
+
+    /**
+     * Associates the value with the TypeID given by its parts.
+     *
+     * @param prefix the prefix, might be an empty string
+     * @param msb    the most significant bits of the {@link UUID}
+     * @param lsb    the least significant bits of the {@link UUID}
+     * @param value  the value
+     * @return the previous value, or {@code null} if there was none
+     * @throws NullPointerException     if the prefix and/or value is null
+     * @throws IllegalArgumentException if the prefix is invalid
+     * @throws IllegalStateException    if the prefix is new and the map already holds the maximum number of prefixes
+     */
+    public V put(final String prefix, final long msb, final long lsb, final V value) {
+        Objects.requireNonNull(value);
+        final int result = table.insert(prefix, msb, lsb);
+        final int slot = result < 0 ? ~result : result;
+        final V previous = result < 0 ? null : valueAt(slot);
+        table.setValueAt(slot, value);
+        return previous;
+    }
+
+    /**
+     * Returns the value associated with the {@link TypeId}.
+     *
+     * @param typeId the {@link TypeId}
+     * @return the value, or {@code null} if there is none
+     * @throws NullPointerException if the {@link TypeId} is null
+     */
+    public V get(final TypeId typeId) {
+        return get(typeId.prefix(), typeId.uuid().getMostSignificantBits(), typeId.uuid().getLeastSignificantBits());
+    }
+
+    /**
+     * Returns the value associated with the TypeID given by its parts.
+     *
+     * @param prefix the prefix, might be an empty string
+     * @param msb    the most significant bits of the {@link UUID}
+     * @param lsb    the least significant bits of the {@link UUID}
+     * @return the value, or {@code null} if there is none
+     * @throws NullPointerException if the prefix is null
+     */
+    public V get(final String prefix, final long msb, final long lsb) {
+        final int slot = table.indexOf(Objects.requireNonNull(prefix), msb, lsb);
+        return slot < 0 ? null : valueAt(slot);
+    }
+
+    /**
+     * Returns the value associated with the TypeID given by its textual representation.
+     *
+     * @param text the textual representation
+     * @return the value, or {@code null} if there is none or the text is null or invalid
+     */
+    public V get(final CharSequence text) {
+        final int slot = table.indexOf(text);
+        return slot < 0 ? null : valueAt(slot);
+    }
+
+    /**
+     * Returns whether this map contains the {@link TypeId} as key.
+     *
+     * @param typeId the {@link TypeId}
+     * @return {@code true} if the map contains the key
+     * @throws NullPointerException if the {@link TypeId} is null
+     */
+    public boolean containsKey(final TypeId typeId) {
+        return get(typeId) != null;
+    }
+
+    /**
+     * Returns whether this map contains the TypeID given by its textual representation as key.
+     *
+     * @param text the textual representation
+     * @return {@code true} if the map contains the key, {@code false} if not or if the text is null or invalid
+     */
+    public boolean containsKey(final CharSequence text) {
+        return table.indexOf(text) >= 0;
+    }
+
+    /**
+     * Removes the entry for the {@link TypeId}.
+     *
+     * @param typeId the {@link TypeId}
+     * @return the removed value, or {@code null} if there was none
+     * @throws NullPointerException if the {@link TypeId} is null
+     */
+    public V remove(final TypeId typeId) {
+        return remove(typeId.prefix(), typeId.uuid().getMostSignificantBits(), typeId.uuid().getLeastSignificantBits());
+    }
+
+    /**
+     * Removes the entry for the TypeID given by its parts.
+     *
+     * @param prefix the prefix, might be an empty string
+     * @param msb    the most significant bits of the {@link UUID}
+     * @param lsb    the least significant bits of the {@link UUID}
+     * @return the removed value, or {@code null} if there was none
+     * @throws NullPointerException if the prefix is null
+     */
+    public V remove(final String prefix, final long msb, final long lsb) {
+        final int slot = table.indexOf(Objects.requireNonNull(prefix), msb, lsb);
+        if (slot < 0) {
+            return null;
+        }
+        final V value = valueAt(slot);
+        table.removeAt(slot);
+        return value;
+    }
+
+    /**
+     * Returns the number of entries in this map.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * Returns whether this map is empty.
+     *
+     * @return {@code true} if the map is empty
+     */
+    public boolean isEmpty() {
+        return table.size() == 0;
+    }
+
+    /**
+     * Removes all entries from this map.
+     */
+    public void clear() {
+        table.clear();
+    }
+
+    /**
+     * Performs the action for each entry of this map, in no particular order. A {@link TypeId} is
+     * created for each key.
+     *
+     * @param action the action
+     * @throws NullPointerException if the action is null
+     */
+    public void forEach(final BiConsumer<? super TypeId, ? super V> action) {
+        Objects.requireNonNull(action);
+        for (int slot = 0; slot < table.capacity(); slot++) {
+            if (table.isOccupied(slot)) {
+                action.accept(table.keyAt(slot), valueAt(slot));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(final int slot) {
+        return (V) table.valueAt(slot);
+    }
+}
@@ -0,0 +1,166 @@
+package de.fxlae.typeid;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * A set of TypeIDs that stores them without any per-element objects.
+ * <p> The elements are kept in an open addressing hash table of parallel primitive arrays: the most and
+ * least significant bits of the {@link UUID} and the ordinal of the prefix. Elements can be added, looked
+ * up and removed by their parts or by their textual representation, without creating a {@link TypeId}.
+ * The set can hold up to 1023 distinct non-empty prefixes.
+ * <p> Instances are not thread-safe.
+ */
+public final class TypeIdSet {
+
+    private final TypeIdTable table;
+
+    /**
+     * Creates a new, empty set.
+     */
+    public TypeIdSet() {
+        this(0);
+    }
+
+    /**
+     * Creates a new, empty set that can hold the given number of elements without growing.
+     *
+     * @param expectedSize the expected number of elements
+     * @throws IllegalArgumentException if the expected size is negative
+     */
+    public TypeIdSet(final int expectedSize) {
+        this.table = new TypeIdTable(expectedSize, false);
+    }
+
+    /**
+     * Adds the {@link TypeId} to this set.
+     *
+     * @param typeId the {@link TypeId}
+     * @return {@code true} if the set did not already contain it
+     * @throws NullPointerException  if the {@link TypeId} is null
+     * @throws IllegalStateException if the prefix is new and the set already holds the maximum number of prefixes
+     */
+    public boolean add(final TypeId typeId) {
+        return add(typeId.prefix(), typeId.uuid().getMostSignificantBits(), typeId.uuid().getLeastSignificantBits());
+    }
+
+    /**
+     * Adds the TypeID given by its parts to this set.
+     *
+     * @param prefix the prefix, might be an empty string
+     * @param msb    the most significant bits of the {@link UUID}
+     * @param lsb    the least significant bits of the {@link UUID}
+     * @return {@code true} if the set did not already contain it
+     * @throws NullPointerException     if the prefix is null
+     * @throws IllegalArgumentException if the prefix is invalid
+     * @throws IllegalStateException    if the prefix is new and the set already holds the maximum number of prefixes
+     */
+    public boolean add(final String prefix, final long msb, final long lsb) {
+        return table.insert(prefix, msb, lsb) < 0;
+    }
+
+    /**
+     * Returns whether this set contains the {@link TypeId}.
+     *
+     * @param typeId the {@link TypeId}
+     * @return {@code true} if the set contains it
+     * @throws NullPointerException if the {@link TypeId} is null
+     */
+    public boolean contains(final TypeId typeId) {
+        return contains(typeId.prefix(), typeId.uuid().getMostSignificantBits(), typeId.uuid().getLeastSignificantBits());
+    }
+
+    /**
+     * Returns whether this set contains the TypeID given by its parts.
+     *
+     * @param prefix the prefix, might be an empty string
+     * @param msb    the most significant bits of the {@link UUID}
+     * @param lsb    the least significant bits of the {@link UUID}
+     * @return {@code true} if the set contains it
+     * @throws NullPointerException if the prefix is null
+     */
+    public boolean contains(final String prefix, final long msb, final long lsb) {
+        return table.indexOf(Objects.requireNonNull(prefix), msb, lsb) >= 0;
+    }
+
+    /**
+     * Returns whether this set contains the TypeID given by its textual representation.
+     *
+     * @param text the textual representation
+     * @return {@code true} if the set contains it, {@code false} if not or if the text is null or invalid
+     */
+    public boolean contains(final CharSequence text) {
+        return table.indexOf(text) >= 0;
+    }
+
+    /**
+     * Removes the {@link TypeId} from this set.
+     *
+     * @param typeId the {@link TypeId}
+     * @return {@code true} if the set contained it
+     * @throws NullPointerException if the {@link TypeId} is null
+     */
+    public boolean remove(final TypeId typeId) {
+        return remove(typeId.prefix(), typeId.uuid().getMostSignificantBits(), typeId.uuid().getLeastSignificantBits());
+    }
+
+    /**
+     * Removes the TypeID given by its parts from this set.
+     *
+     * @param prefix the prefix, might be an empty string
+     * @param msb    the most significant bits of the {@link UUID}
+     * @param lsb    the least significant bits of the {@link UUID}
+     * @return {@code true} if the set contained it
+     * @throws NullPointerException if the prefix is null
+     */
+    public boolean remove(final String prefix, final long msb, final long lsb) {
+        final int slot = table.indexOf(Objects.requireNonNull(prefix), msb, lsb);
+        if (slot < 0) {
+            return false;
+        }
+        table.removeAt(slot);
+        return true;
+    }
+
+    /**
+     * Returns the number of elements in this set.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * Returns whether this set is empty.
+     *
+     * @return {@code true} if the set is empty
+     */
+    public boolean isEmpty() {
+        return table.size() == 0;
+    }
+
+    /**
+     * Removes all elements from this set.
+     */
+    public void clear() {
+        table.clear();
+    }
+
+    /**
+     * Performs the action for each element of this set, in no particular order. A {@link TypeId} is
+     * created for each element.
+     *
+     * @param action the action
+     * @throws NullPointerException if the action is null
+     */
+    public void forEach(final Consumer<? super TypeId> action) {
+        Objects.requireNonNull(action);
+        for (int slot = 0; slot < table.capacity(); slot++) {
+            if (table.isOccupied(slot)) {
+                action.accept(table.keyAt(slot));
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package de.fxlae.typeid;
+
+import de.fxlae.typeid.lib.PrefixRegistry;
+import de.fxlae.typeid.lib.TypeIdLib;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+// an open addressing hash table of TypeIDs with linear probing and backward shift deletion, shared by
+// TypeIdSet and TypeIdMap. the keys are kept in parallel primitive arrays, their prefixes as ordinals of
+// a registry owned by the table. values are only allocated for maps.
+final class TypeIdTable {
+
+    private static final int SUFFIX_LENGTH = 26;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final PrefixRegistry prefixes = new PrefixRegistry();
+    private final boolean withValues;
+
+    private long[] msbs;
+    private long[] lsbs;
+    // the prefix ordinal plus one, so that 0 marks an empty slot
+    private int[] ordinals;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    TypeIdTable(final int expectedSize, final boolean withValues) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative");
+        }
+        this.withValues = withValues;
+        allocate(capacityFor(expectedSize));
+    }
+
+    int size() {
+        return size;
+    }
+
+    // the number of slots, valid slot indexes are 0 to capacity() - 1
+    int capacity() {
+        return ordinals.length;
+    }
+
+    boolean isOccupied(final int slot) {
+        return ordinals[slot] != 0;
+    }
+
+    TypeId keyAt(final int slot) {
+        return new TypeId(prefixes.prefix(ordinals[slot] - 1), new UUID(msbs[slot], lsbs[slot]));
+    }
+
+    Object valueAt(final int slot) {
+        return values[slot];
+    }
+
+    void setValueAt(final int slot, final Object value) {
+        values[slot] = value;
+    }
+
+    // returns the slot of the key, or -1 if it's not contained
+    int indexOf(final String prefix, final long msb, final long lsb) {
+        final int ordinal = prefixes.ordinal(prefix);
+        return ordinal < 0 ? -1 : indexOf(ordinal + 1, msb, lsb);
+    }
+
+    // returns the slot of the key given by its textual representation, or -1 if it's not contained or invalid.
+    // neither a TypeId nor a prefix String is created.
+    int indexOf(final CharSequence text) {
+        if (text == null) {
+            return -1;
+        }
+        final int start = text.length() - SUFFIX_LENGTH;
+        if (start < 0 || start == 1) {
+            return -1;
+        }
+        final int ordinal;
+        if (start == 0) {
+            ordinal = 0;
+        } else {
+            // registered prefixes have been validated already, unknown prefixes can't be contained anyway
+            if (text.charAt(start - 1) != '_') {
+                return -1;
+            }
+            ordinal = prefixes.ordinal(text, 0, start - 1);
+            if (ordinal < 0) {
+                return -1;
+            }
+        }
+        if (TypeIdLib.validateSuffix(text, start) != TypeIdLib.VALID_REF) {
+            return -1;
+        }
+        return indexOf(ordinal + 1, TypeIdLib.decodeSuffixMsb(text, start), TypeIdLib.decodeSuffixLsb(text, start));
+    }
+
+    // returns the slot of the key if it was already contained, otherwise inserts it and returns ~slot
+    int insert(final String prefix, final long msb, final long lsb) {
+        final int ordinal = prefixes.register(prefix) + 1;
+        int slot = slotFor(ordinal, msb, lsb);
+        if (ordinals[slot] != 0) {
+            return slot;
+        }
+        if (size + 1 > maxSize(capacity())) {
+            grow();
+            slot = slotFor(ordinal, msb, lsb);
+        }
+        msbs[slot] = msb;
+        lsbs[slot] = lsb;
+        ordinals[slot] = ordinal;
+        size++;
+        return ~slot;
+    }
+
+    void removeAt(final int slot) {
+        // shift back the following entries of the cluster that would not be found anymore otherwise
+        int hole = slot;
+        for (int i = (slot + 1) & mask; ordinals[i] != 0; i = (i + 1) & mask) {
+            final int home = hash(ordinals[i], msbs[i], lsbs[i]) & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                msbs[hole] = msbs[i];
+                lsbs[hole] = lsbs[i];
+                ordinals[hole] = ordinals[i];
+                if (withValues) {
+                    values[hole] = values[i];
+                }
+                hole = i;
+            }
+        }
+        ordinals[hole] = 0;
+        if (withValues) {
+            values[hole] = null;
+        }
+        size--;
+    }
+
+    void clear() {
+        Arrays.fill(ordinals, 0);
+        if (withValues) {
+            Arrays.fill(values, null);
+        }
+        size = 0;
+    }
+
+    private int indexOf(final int ordinal, final long msb, final long lsb) {
+        final int slot = slotFor(ordinal, msb, lsb);
+        return ordinals[slot] != 0 ? slot : -1;
+    }
+
+    // returns the slot of the key or the empty slot where it would be inserted
+    private int slotFor(final int ordinal, final long msb, final long lsb) {
+        for (int i = hash(ordinal, msb, lsb) & mask; ; i = (i + 1) & mask) {
+            final int o = ordinals[i];
+            if (o == 0 || (o == ordinal && msbs[i] == msb && lsbs[i] == lsb)) {
+                return i;
+            }
+        }
+    }
+
+    private void grow() {
+        final int capacity = capacity();
+        if (capacity == MAX_CAPACITY) {
+            throw new IllegalStateException("TypeId table is full, maximum size is " + maxSize(MAX_CAPACITY));
+        }
+        final long[] oldMsbs = msbs;
+        final long[] oldLsbs = lsbs;
+        final int[] oldOrdinals = ordinals;
+        final Object[] oldValues = values;
+        allocate(capacity << 1);
+        for (int i = 0; i < oldOrdinals.length; i++) {
+            final int ordinal = oldOrdinals[i];
+            if (ordinal != 0) {
+                final int slot = slotFor(ordinal, oldMsbs[i], oldLsbs[i]);
+                msbs[slot] = oldMsbs[i];
+                lsbs[slot] = oldLsbs[i];
+                ordinals[slot] = ordinal;
+                if (withValues) {
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        msbs = new long[capacity];
+        lsbs = new long[capacity];
+        ordinals = new int[capacity];
+        values = withValues ? new Object[capacity] : null;
+        mask = capacity - 1;
+    }
+
+    // keeps the load factor at or below 0.75
+    private static int maxSize(final int capacity) {
+        return capacity - (capacity >>> 2);
+    }
+
+    private static int capacityFor(final int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (maxSize(capacity) < expectedSize && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    // in UUIDv7, the msb is mostly a timestamp, which is why all bits are mixed (with the finalizer of
+    // MurmurHash3) instead of just taking the lower bits of the (random) lsb
+    private static int hash(final int ordinal, final long msb, final long lsb) {
+        long h = lsb ^ Long.rotateLeft(msb, 32) ^ ((long) ordinal * 0x9E3779B97F4A7C15L);
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) (h ^ (h >>> 33));
+    }
+}
@@ -0,0 +1,311 @@
+package de.fxlae.typeid;
+
+import de.fxlae.typeid.lib.PrefixRegistry;
+import de.fxlae.typeid.lib.TypeIdConsumer;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Reads TypeIDs in the binary format written by {@link TypeIdWireEncoder}.
+ * <p> Decoding a TypeID is a copy of its 16 bytes, there is no base32 decoding and no prefix validation
+ * except for the definition of each new prefix. TypeIDs can be read as {@link TypeId}, as parts passed to a
+ * {@link TypeIdConsumer} or as primitive columns, where the prefix ordinals refer to {@link #prefixes()}.
+ * <p> The input is read ahead in blocks, so a stream should not be used for anything else after it has been
+ * passed to a decoder. A buffer is read in place, its position only advances past the records that have been
+ * decoded. Instances are not thread-safe.
+ */
+public final class TypeIdWireDecoder implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final VarHandle LONG_BIG_ENDIAN = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final InputStream in;
+    // the source of the buffer constructors, whose position is kept in sync with the decoded records
+    private final ByteBufferInputStream source;
+    private final PrefixRegistry prefixes = new PrefixRegistry();
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean headerRead;
+
+    // the bits of the last TypeID read by next()
+    private long msb;
+    private long lsb;
+
+    /**
+     * Creates a decoder that reads from the stream.
+     *
+     * @param in the stream
+     * @throws NullPointerException if the stream is null
+     */
+    public TypeIdWireDecoder(final InputStream in) {
+        this(in, List.of());
+    }
+
+    /**
+     * Creates a decoder that reads from the stream, with prefixes that have been negotiated with the encoder.
+     *
+     * @param in                 the stream
+     * @param negotiatedPrefixes the prefixes known to both sides, in the same order as for the encoder
+     * @throws NullPointerException     if the stream and/or the prefixes are null
+     * @throws IllegalArgumentException if a prefix is invalid
+     * @throws IllegalStateException    if there are too many prefixes
+     */
+    public TypeIdWireDecoder(final InputStream in, final List<String> negotiatedPrefixes) {
+        this.in = Objects.requireNonNull(in);
+        this.source = in instanceof ByteBufferInputStream ? (ByteBufferInputStream) in : null;
+        for (String prefix : negotiatedPrefixes) {
+            prefixes.register(prefix);
+        }
+    }
+
+    /**
+     * Creates a decoder that reads the buffer from its current position to its limit. The position of the
+     * buffer is advanced past each record that is read.
+     *
+     * @param src the buffer
+     * @throws NullPointerException if the buffer is null
+     */
+    public TypeIdWireDecoder(final ByteBuffer src) {
+        this(src, List.of());
+    }
+
+    /**
+     * Creates a decoder that reads the buffer from its current position to its limit, with prefixes that
+     * have been negotiated with the encoder. The position of the buffer is advanced past each record that is
+     * read.
+     *
+     * @param src                the buffer
+     * @param negotiatedPrefixes the prefixes known to both sides, in the same order as for the encoder
+     * @throws NullPointerException     if the buffer and/or the prefixes are null
+     * @throws IllegalArgumentException if a prefix is invalid
+     * @throws IllegalStateException    if there are too many prefixes
+     */
+    public TypeIdWireDecoder(final ByteBuffer src, final List<String> negotiatedPrefixes) {
+        this(new ByteBufferInputStream(src), negotiatedPrefixes);
+    }
+
+    /**
+     * Returns the prefixes of the stream that have been negotiated or read so far. The prefix ordinals
+     * returned by {@link #read(int[], long[], long[], int, int)} refer to this registry.
+     *
+     * @return the prefixes
+     */
+    public PrefixRegistry prefixes() {
+        return prefixes;
+    }
+
+    /**
+     * Reads the next TypeID.
+     *
+     * @return the {@link TypeId}, or {@code null} at the end of the stream
+     * @throws IOException if the underlying stream fails or the input is not valid
+     */
+    public TypeId read() throws IOException {
+        final int ordinal = next();
+        return ordinal < 0 ? null : new TypeId(prefixes.prefix(ordinal), new UUID(msb, lsb));
+    }
+
+    /**
+     * Reads the next TypeID and passes its parts to the consumer.
+     *
+     * @param consumer the consumer
+     * @return {@code false} at the end of the stream, {@code true} otherwise
+     * @throws NullPointerException if the consumer is null
+     * @throws IOException          if the underlying stream fails or the input is not valid
+     */
+    public boolean read(final TypeIdConsumer consumer) throws IOException {
+        Objects.requireNonNull(consumer);
+        final int ordinal = next();
+        if (ordinal < 0) {
+            return false;
+        }
+        consumer.accept(prefixes.prefix(ordinal), msb, lsb);
+        return true;
+    }
+
+    /**
+     * Reads up to {@code n} TypeIDs into columns.
+     *
+     * @param ordinals the destination for the ordinals of the prefixes in {@link #prefixes()}
+     * @param msbs     the destination for the most significant bits of the {@link UUID}s
+     * @param lsbs     the destination for the least significant bits of the {@link UUID}s
+     * @param offset   the index of the first TypeID in the arrays
+     * @param n        the maximum number of TypeIDs to read
+     * @return the number of TypeIDs read, less than {@code n} only at the end of the stream
+     * @throws NullPointerException      if one of the arrays is null
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the arrays
+     * @throws IOException               if the underlying stream fails or the input is not valid
+     */
+    public int read(final int[] ordinals, final long[] msbs, final long[] lsbs, final int offset, final int n) throws IOException {
+        Objects.checkFromIndexSize(offset, n, ordinals.length);
+        Objects.checkFromIndexSize(offset, n, msbs.length);
+        Objects.checkFromIndexSize(offset, n, lsbs.length);
+        for (int i = 0; i < n; i++) {
+            final int ordinal = next();
+            if (ordinal < 0) {
+                return i;
+            }
+            ordinals[offset + i] = ordinal;
+            msbs[offset + i] = msb;
+            lsbs[offset + i] = lsb;
+        }
+        return n;
+    }
+
+    /**
+     * Closes the underlying stream.
+     *
+     * @throws IOException if the underlying stream fails
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // reads records up to the next TypeID, stores its bits and returns the ordinal of its prefix, or -1 at the end
+    private int next() throws IOException {
+        final int ordinal = nextRecord();
+        if (source != null) {
+            source.consumed(limit - position);
+        }
+        return ordinal;
+    }
+
+    private int nextRecord() throws IOException {
+        if (!headerRead) {
+            readHeader();
+        }
+        while (true) {
+            if (!fill(1)) {
+                return -1;
+            }
+            final int value = readVarInt();
+            if ((value & 1) == 0) {
+                final int ordinal = value >>> 1;
+                if (ordinal >= prefixes.size()) {
+                    throw new IOException("Invalid TypeId stream, undefined prefix ordinal " + ordinal);
+                }
+                require(16);
+                msb = (long) LONG_BIG_ENDIAN.get(buffer, position);
+                lsb = (long) LONG_BIG_ENDIAN.get(buffer, position + 8);
+                position += 16;
+                return ordinal;
+            }
+            readPrefixDefinition(value >>> 1);
+        }
+    }
+
+    private void readPrefixDefinition(final int length) throws IOException {
+        if (length == 0 || length > BUFFER_SIZE) {
+            throw new IOException("Invalid TypeId stream, illegal prefix length " + length);
+        }
+        require(length);
+        if (prefixes.ordinal(buffer, position, position + length) >= 0) {
+            throw new IOException("Invalid TypeId stream, prefix is defined twice");
+        }
+        final String prefix = new String(buffer, position, length, StandardCharsets.ISO_8859_1);
+        position += length;
+        try {
+            prefixes.register(prefix);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new IOException("Invalid TypeId stream, " + e.getMessage(), e);
+        }
+    }
+
+    private void readHeader() throws IOException {
+        require(5);
+        final int magic = (buffer[position] & 0xFF) << 24 | (buffer[position + 1] & 0xFF) << 16
+                | (buffer[position + 2] & 0xFF) << 8 | (buffer[position + 3] & 0xFF);
+        if (magic != TypeIdWireEncoder.MAGIC) {
+            throw new IOException("Not a TypeId stream, magic number does not match");
+        }
+        if (buffer[position + 4] != TypeIdWireEncoder.VERSION) {
+            throw new IOException("Unsupported TypeId stream version " + buffer[position + 4]);
+        }
+        position += 5;
+        headerRead = true;
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            require(1);
+            final byte b = buffer[position++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Invalid TypeId stream, varint is too long");
+    }
+
+    private void require(final int n) throws IOException {
+        if (!fill(n)) {
+            throw new EOFException("Truncated TypeId stream");
+        }
+    }
+
+    // makes sure that at least n bytes are buffered, returns false if the stream ends before
+    private boolean fill(final int n) throws IOException {
+        if (limit - position >= n) {
+            return true;
+        }
+        System.arraycopy(buffer, position, buffer, 0, limit - position);
+        limit -= position;
+        position = 0;
+        while (limit < n) {
+            final int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                return false;
+            }
+            limit += read;
+        }
+        return true;
+    }
+
+    // reads the buffer with absolute gets, so that its position can be set to the end of the decoded records
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer src;
+        private int next;
+
+        ByteBufferInputStream(final ByteBuffer src) {
+            this.src = Objects.requireNonNull(src);
+            this.next = src.position();
+        }
+
+        @Override
+        public int read() {
+            return next < src.limit() ? src.get(next++) & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if (next >= src.limit()) {
+                return -1;
+            }
+            final int n = Math.min(len, src.limit() - next);
+            src.get(next, b, off, n);
+            next += n;
+            return n;
+        }
+
+        // moves the position of the buffer to the first byte that hasn't been decoded yet
+        void consumed(final int unread) {
+            src.position(next - unread);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package de.fxlae.typeid;
+
+import de.fxlae.typeid.lib.PrefixRegistry;
+import de.fxlae.typeid.lib.TypeIdLib;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Writes TypeIDs in a compact binary format, which is read by {@link TypeIdWireDecoder}.
+ * <p> The stream starts with the 4 magic bytes {@code TIDW} and a version byte, followed by records that
+ * each start with an unsigned LEB128 varint {@code v}:
+ * <ul>
+ * <li>if {@code v} is even, it's a TypeID whose prefix has the ordinal {@code v / 2}, followed by the 16
+ * big-endian bytes of its {@link UUID}</li>
+ * <li>if {@code v} is odd, it's the definition of the next prefix ordinal, followed by the {@code v / 2}
+ * ASCII bytes of the prefix</li>
+ * </ul>
+ * <p> The empty prefix always has the ordinal {@code 0}. Each other prefix is defined once, right before
+ * its first TypeID, so a TypeID with a known prefix takes 17 bytes (18 bytes from the 64th prefix on). Prefixes
+ * can also be negotiated upfront: both sides then have to pass the same list, in the same order, to the
+ * constructors of the encoder and decoder. A stream can hold up to
+ * {@link PrefixRegistry#DEFAULT_CAPACITY} - 1 distinct non-empty prefixes.
+ * <p> The output is buffered, it's only guaranteed to reach the underlying stream or buffer after
+ * {@link #flush()} or {@link #close()}. Instances are not thread-safe.
+ */
+public final class TypeIdWireEncoder implements Closeable, Flushable {
+
+    static final int MAGIC = 0x54494457;
+    static final byte VERSION = 1;
+
+    private static final int BUFFER_SIZE = 8192;
+    // a varint with up to 5 bytes and a UUID
+    private static final int MAX_RECORD_SIZE = 5 + 16;
+    private static final VarHandle LONG_BIG_ENDIAN = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final OutputStream out;
+    private final PrefixRegistry prefixes = new PrefixRegistry();
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    /**
+     * Creates an encoder that writes to the stream.
+     *
+     * @param out the stream
+     * @throws NullPointerException if the stream is null
+     */
+    public TypeIdWireEncoder(final OutputStream out) {
+        this(out, List.of());
+    }
+
+    /**
+     * Creates an encoder that writes to the stream, with prefixes that have been negotiated with the decoder.
+     *
+     * @param out                the stream
+     * @param negotiatedPrefixes the prefixes known to both sides, which are never sent
+     * @throws NullPointerException     if the stream and/or the prefixes are null
+     * @throws IllegalArgumentException if a prefix is invalid
+     * @throws IllegalStateException    if there are too many prefixes
+     */
+    public TypeIdWireEncoder(final OutputStream out, final List<String> negotiatedPrefixes) {
+        this.out = Objects.requireNonNull(out);
+        for (String prefix : negotiatedPrefixes) {
+            prefixes.register(prefix);
+        }
+        writeInt(MAGIC);
+        buffer[position++] = VERSION;
+    }
+
+    /**
+     * Creates an encoder that writes to the buffer, starting at its current position. If the buffer is
+     * full, flushing throws a {@link BufferOverflowException}.
+     *
+     * @param dst the buffer
+     * @throws NullPointerException if the buffer is null
+     */
+    public TypeIdWireEncoder(final ByteBuffer dst) {
+        this(dst, List.of());
+    }
+
+    /**
+     * Creates an encoder that writes to the buffer, starting at its current position, with prefixes that
+     * have been negotiated with the decoder. If the buffer is full, flushing throws a
+     * {@link BufferOverflowException}.
+     *
+     * @param dst                the buffer
+     * @param negotiatedPrefixes the prefixes known to both sides, which are never sent
+     * @throws NullPointerException     if the buffer and/or the prefixes are null
+     * @throws IllegalArgumentException if a prefix is invalid
+     * @throws IllegalStateException    if there are too many prefixes
+     */
+    public TypeIdWireEncoder(final ByteBuffer dst, final List<String> negotiatedPrefixes) {
+        this(new ByteBufferOutputStream(dst), negotiatedPrefixes);
+    }
+
+    /**
+     * Writes the {@link TypeId}.
+     *
+     * @param typeId the {@link TypeId}
+     * @throws NullPointerException  if the {@link TypeId} is null
+     * @throws IllegalStateException if the prefix is new and the stream already holds the maximum number of prefixes
+     * @throws IOException           if the underlying stream fails
+     */
+    public void write(final TypeId typeId) throws IOException {
+        write(typeId.prefix(), typeId.uuid().getMostSignificantBits(), typeId.uuid().getLeastSignificantBits());
+    }
+
+    /**
+     * Writes the TypeID given by its parts.
+     *
+     * @param prefix the prefix, might be an empty string
+     * @param msb    the most significant bits of the {@link UUID}
+     * @param lsb    the least significant bits of the {@link UUID}
+     * @throws NullPointerException     if the prefix is null
+     * @throws IllegalArgumentException if the prefix is invalid
+     * @throws IllegalStateException    if the prefix is new and the stream already holds the maximum number of prefixes
+     * @throws IOException              if the underlying stream fails
+     */
+    public void write(final String prefix, final long msb, final long lsb) throws IOException {
+        writeRecord(ordinal(prefix), msb, lsb);
+    }
+
+    /**
+     * Writes a column of TypeIDs with the same prefix.
+     *
+     * @param prefix the prefix, might be an empty string
+     * @param msbs   the most significant bits of the {@link UUID}s
+     * @param lsbs   the least significant bits of the {@link UUID}s
+     * @param offset the index of the first TypeID in the arrays
+     * @param n      the number of TypeIDs
+     * @throws NullPointerException      if the prefix and/or one of the arrays is null
+     * @throws IllegalArgumentException  if the prefix is invalid
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the arrays
+     * @throws IllegalStateException     if the prefix is new and the stream already holds the maximum number of prefixes
+     * @throws IOException               if the underlying stream fails
+     */
+    public void write(final String prefix, final long[] msbs, final long[] lsbs, final int offset, final int n) throws IOException {
+        Objects.checkFromIndexSize(offset, n, msbs.length);
+        Objects.checkFromIndexSize(offset, n, lsbs.length);
+        final int ordinal = ordinal(prefix);
+        for (int i = offset; i < offset + n; i++) {
+            writeRecord(ordinal, msbs[i], lsbs[i]);
+        }
+    }
+
+    /**
+     * Writes columns of TypeIDs, e.g. as decoded by
+     * {@link de.fxlae.typeid.lib.TypeIdLib#decodeColumns(List, PrefixRegistry, long[], long[], int[], java.util.BitSet)}.
+     *
+     * @param registry the registry the ordinals refer to
+     * @param ordinals the ordinals of the prefixes in the registry
+     * @param msbs     the most significant bits of the {@link UUID}s
+     * @param lsbs     the least significant bits of the {@link UUID}s
+     * @param offset   the index of the first TypeID in the arrays
+     * @param n        the number of TypeIDs
+     * @throws NullPointerException      if the registry and/or one of the arrays is null
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the arrays or an ordinal is not registered
+     * @throws IllegalStateException     if a prefix is new and the stream already holds the maximum number of prefixes
+     * @throws IOException               if the underlying stream fails
+     */
+    public void write(
+            final PrefixRegistry registry,
+            final int[] ordinals,
+            final long[] msbs,
+            final long[] lsbs,
+            final int offset,
+            final int n) throws IOException {
+        Objects.checkFromIndexSize(offset, n, ordinals.length);
+        Objects.checkFromIndexSize(offset, n, msbs.length);
+        Objects.checkFromIndexSize(offset, n, lsbs.length);
+        for (int i = offset; i < offset + n; i++) {
+            writeRecord(ordinal(registry.prefix(ordinals[i])), msbs[i], lsbs[i]);
+        }
+    }
+
+    /**
+     * Writes the buffered output to the underlying stream or buffer and flushes it.
+     *
+     * @throws IOException             if the underlying stream fails
+     * @throws BufferOverflowException if the underlying buffer is full
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    /**
+     * Flushes and closes the underlying stream.
+     *
+     * @throws IOException             if the underlying stream fails
+     * @throws BufferOverflowException if the underlying buffer is full
+     */
+    @Override
+    public void close() throws IOException {
+        try (out) {
+            drain();
+        }
+    }
+
+    // returns the ordinal of the prefix, defining it in the stream if it's new. the prefix is only registered
+    // once there is room for its definition, so that a failing stream doesn't leave it registered but undefined.
+    private int ordinal(final String prefix) throws IOException {
+        final int ordinal = prefixes.ordinal(Objects.requireNonNull(prefix));
+        if (ordinal >= 0) {
+            return ordinal;
+        }
+        TypeIdLib.requireValidPrefix(prefix);
+        if (buffer.length - position < 5 + prefix.length()) {
+            drain();
+        }
+        final int registered = prefixes.register(prefix);
+        writeVarInt(prefix.length() << 1 | 1);
+        for (int i = 0; i < prefix.length(); i++) {
+            buffer[position++] = (byte) prefix.charAt(i);
+        }
+        return registered;
+    }
+
+    private void writeRecord(final int ordinal, final long msb, final long lsb) throws IOException {
+        if (buffer.length - position < MAX_RECORD_SIZE) {
+            drain();
+        }
+        writeVarInt(ordinal << 1);
+        LONG_BIG_ENDIAN.set(buffer, position, msb);
+        LONG_BIG_ENDIAN.set(buffer, position + 8, lsb);
+        position += 16;
+    }
+
+    private void writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeInt(final int value) {
+        buffer[position++] = (byte) (value >>> 24);
+        buffer[position++] = (byte) (value >>> 16);
+        buffer[position++] = (byte) (value >>> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private static final class ByteBufferOutputStream extends OutputStream {
+
+        private final ByteBuffer dst;
+
+        ByteBufferOutputStream(final ByteBuffer dst) {
+            this.dst = Objects.requireNonNull(dst);
+        }
+
+        @Override
+        public void write(final int b) {
+            dst.put((byte) b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            dst.put(b, off, len);
+        }
+    }
+}
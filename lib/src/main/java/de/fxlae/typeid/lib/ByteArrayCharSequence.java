@@ -0,0 +1,39 @@
+package de.fxlae.typeid.lib;
+
+import java.nio.charset.StandardCharsets;
+
+// a read-only view on a slice of a byte array, each byte is interpreted as one char (ISO-8859-1).
+// as TypeIDs are pure ASCII, this is sufficient to validate and decode UTF-8 encoded input in place:
+// every byte of a multibyte sequence is > 127 and therefore rejected by the validation.
+final class ByteArrayCharSequence implements CharSequence {
+
+    private final byte[] bytes;
+    private final int offset;
+    private final int length;
+
+    ByteArrayCharSequence(final byte[] bytes, final int offset, final int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        return (char) (bytes[offset + index] & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        return new ByteArrayCharSequence(bytes, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+    }
+}
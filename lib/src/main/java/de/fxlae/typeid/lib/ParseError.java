@@ -0,0 +1,65 @@
+package de.fxlae.typeid.lib;
+
+/**
+ * The reasons why the textual representation of a TypeID can be invalid.
+ * <p> Each error has a constant message, so reporting an error neither builds a {@link String} nor
+ * creates an exception.
+ */
+public enum ParseError {
+
+    /**
+     * The input is null or empty.
+     */
+    NULL_OR_EMPTY("Provided TypeId must not be null or empty"),
+
+    /**
+     * The input has no prefix, but starts with the separator.
+     */
+    EMPTY_PREFIX_WITH_SEPARATOR("TypeId with empty prefix must not contain the separator '_'"),
+
+    /**
+     * The suffix does not have exactly 26 characters.
+     */
+    SUFFIX_LENGTH("Suffix with illegal length, must be 26"),
+
+    /**
+     * The leftmost character of the suffix is greater than {@code 7}, so the suffix would overflow 128 bits.
+     */
+    SUFFIX_LEFTMOST_CHARACTER("Illegal leftmost suffix character, must be one of [01234567]"),
+
+    /**
+     * The suffix contains a character that is not part of the base32 alphabet.
+     */
+    SUFFIX_CHARACTER("Illegal character in suffix, must be one of [0123456789abcdefghjkmnpqrstvwxyz]"),
+
+    /**
+     * The prefix is longer than 63 characters.
+     */
+    PREFIX_LENGTH("Prefix with illegal length, must not have more than 63 characters"),
+
+    /**
+     * The prefix starts or ends with the separator.
+     */
+    PREFIX_SEPARATOR_AT_EDGE("Prefix must not start or end with '_'"),
+
+    /**
+     * The prefix contains a character other than lowercase ASCII letters and the separator.
+     */
+    PREFIX_CHARACTER("Illegal character in prefix, must be one of [a-z_]");
+
+    private final String message;
+
+    ParseError(final String message) {
+        this.message = message;
+    }
+
+    /**
+     * Returns the human-readable description of this error, which is the same message the
+     * {@link String} based error handlers receive.
+     *
+     * @return the message
+     */
+    public String message() {
+        return message;
+    }
+}
@@ -0,0 +1,21 @@
+package de.fxlae.typeid.lib;
+
+/**
+ * Handles a failed attempt to parse the textual representation of a TypeID.
+ *
+ * @param <T> the result type of the handler
+ */
+@FunctionalInterface
+public interface ParseErrorHandler<T> {
+
+    /**
+     * Called with the reason why the input is invalid.
+     *
+     * @param error    the {@link ParseError}
+     * @param position the index of the first offending character in the input. For length errors, this is
+     *                 the index where the suffix (or the character exceeding the maximum prefix length) starts,
+     *                 {@code -1} if the input is null or empty
+     * @return the result of the handler
+     */
+    T onError(ParseError error, int position);
+}
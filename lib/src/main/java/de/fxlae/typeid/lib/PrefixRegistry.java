@@ -0,0 +1,317 @@
+package de.fxlae.typeid.lib;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A registry of validated, canonical prefix instances.
+ * <p> Each registered prefix is validated exactly once and is assigned a stable ordinal. The empty
+ * prefix is always registered with ordinal {@code 0}. Lookups are lock-free and can be performed on
+ * a region of any {@link CharSequence} without creating a substring first.
+ * <p> A registry has a fixed capacity, so it cannot grow without bounds when fed with untrusted input.
+ * The {@link #shared() shared} registry is used by {@link TypeIdLib} and {@code TypeId} to avoid
+ * re-validating known prefixes and to share a single {@link String} instance per prefix.
+ */
+public final class PrefixRegistry {
+
+    /**
+     * The capacity of the {@link #shared() shared} registry, including the empty prefix.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final PrefixRegistry SHARED = new PrefixRegistry(DEFAULT_CAPACITY);
+
+    private final int capacity;
+
+    // copy-on-write, replaced as a whole on each registration
+    private volatile Table table;
+
+    /**
+     * Creates a new registry with {@link #DEFAULT_CAPACITY}.
+     */
+    public PrefixRegistry() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new registry.
+     *
+     * @param capacity the maximum number of prefixes, including the empty prefix
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    public PrefixRegistry(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.table = new Table(new String[]{""});
+    }
+
+    /**
+     * Returns the registry shared by the whole library.
+     *
+     * @return the shared registry
+     */
+    public static PrefixRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * Validates and registers the prefix and returns its canonical instance. If the registry is full,
+     * the (validated) prefix itself is returned without registering it.
+     *
+     * @param prefix the prefix
+     * @return the canonical instance of the prefix
+     * @throws NullPointerException     if the prefix is null
+     * @throws IllegalArgumentException if the prefix is invalid
+     */
+    public String intern(final String prefix) {
+        final int ordinal = ordinal(prefix);
+        if (ordinal >= 0) {
+            return table.prefixes[ordinal];
+        }
+        TypeIdLib.requireValidPrefixUncached(prefix);
+        final int registered = add(prefix);
+        return registered >= 0 ? table.prefixes[registered] : prefix;
+    }
+
+    /**
+     * Validates and registers the prefix and returns its ordinal.
+     *
+     * @param prefix the prefix
+     * @return the ordinal of the prefix
+     * @throws NullPointerException     if the prefix is null
+     * @throws IllegalArgumentException if the prefix is invalid
+     * @throws IllegalStateException    if the prefix is not yet registered and the registry is full
+     */
+    public int register(final String prefix) {
+        final int ordinal = ordinal(prefix);
+        if (ordinal >= 0) {
+            return ordinal;
+        }
+        TypeIdLib.requireValidPrefixUncached(prefix);
+        final int registered = add(prefix);
+        if (registered < 0) {
+            throw new IllegalStateException("Prefix registry is full, capacity is " + capacity);
+        }
+        return registered;
+    }
+
+    /**
+     * Returns the ordinal of a registered prefix.
+     *
+     * @param prefix the prefix
+     * @return the ordinal, or {@code -1} if the prefix is not registered
+     * @throws NullPointerException if the prefix is null
+     */
+    public int ordinal(final String prefix) {
+        final Table t = table;
+        // String caches its hash code, so this usually boils down to an identity check
+        for (int i = spread(prefix.hashCode()) & t.mask; ; i = (i + 1) & t.mask) {
+            final String candidate = t.slots[i];
+            if (candidate == null) {
+                return -1;
+            }
+            if (candidate == prefix || candidate.equals(prefix)) {
+                return t.ordinals[i];
+            }
+        }
+    }
+
+    /**
+     * Returns the ordinal of the registered prefix that equals the given region of the input.
+     *
+     * @param input the input
+     * @param start the start of the region, inclusive
+     * @param end   the end of the region, exclusive
+     * @return the ordinal, or {@code -1} if no such prefix is registered
+     */
+    public int ordinal(final CharSequence input, final int start, final int end) {
+        final int length = end - start;
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + input.charAt(i);
+        }
+        final Table t = table;
+        for (int i = spread(hash) & t.mask; ; i = (i + 1) & t.mask) {
+            final String candidate = t.slots[i];
+            if (candidate == null) {
+                return -1;
+            }
+            if (candidate.length() == length && regionMatches(candidate, input, start)) {
+                return t.ordinals[i];
+            }
+        }
+    }
+
+    /**
+     * Returns the ordinal of the registered prefix that equals the given region of ASCII encoded bytes.
+     *
+     * @param input the input
+     * @param start the start of the region, inclusive
+     * @param end   the end of the region, exclusive
+     * @return the ordinal, or {@code -1} if no such prefix is registered
+     */
+    public int ordinal(final byte[] input, final int start, final int end) {
+        final int length = end - start;
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + (input[i] & 0xFF);
+        }
+        final Table t = table;
+        for (int i = spread(hash) & t.mask; ; i = (i + 1) & t.mask) {
+            final String candidate = t.slots[i];
+            if (candidate == null) {
+                return -1;
+            }
+            if (candidate.length() == length && regionMatches(candidate, input, start)) {
+                return t.ordinals[i];
+            }
+        }
+    }
+
+    /**
+     * Returns the ordinal of the registered prefix that equals the given region of ASCII encoded bytes in
+     * the buffer. The region is read with absolute indexes, the position of the buffer is not used or changed.
+     *
+     * @param input the input
+     * @param start the start of the region, inclusive
+     * @param end   the end of the region, exclusive
+     * @return the ordinal, or {@code -1} if no such prefix is registered
+     */
+    public int ordinal(final ByteBuffer input, final int start, final int end) {
+        final int length = end - start;
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + (input.get(i) & 0xFF);
+        }
+        final Table t = table;
+        for (int i = spread(hash) & t.mask; ; i = (i + 1) & t.mask) {
+            final String candidate = t.slots[i];
+            if (candidate == null) {
+                return -1;
+            }
+            if (candidate.length() == length && regionMatches(candidate, input, start)) {
+                return t.ordinals[i];
+            }
+        }
+    }
+
+    /**
+     * Returns the canonical instance of the registered prefix that equals the given region of the input.
+     *
+     * @param input the input
+     * @param start the start of the region, inclusive
+     * @param end   the end of the region, exclusive
+     * @return the canonical prefix, or {@code null} if no such prefix is registered
+     */
+    public String lookup(final CharSequence input, final int start, final int end) {
+        final int ordinal = ordinal(input, start, end);
+        return ordinal >= 0 ? table.prefixes[ordinal] : null;
+    }
+
+    /**
+     * Returns the prefix registered with the given ordinal.
+     *
+     * @param ordinal the ordinal
+     * @return the canonical prefix
+     * @throws IndexOutOfBoundsException if no prefix is registered with this ordinal
+     */
+    public String prefix(final int ordinal) {
+        final String[] prefixes = table.prefixes;
+        Objects.checkIndex(ordinal, prefixes.length);
+        return prefixes[ordinal];
+    }
+
+    /**
+     * Returns the number of registered prefixes, including the empty prefix.
+     *
+     * @return the number of registered prefixes
+     */
+    public int size() {
+        return table.prefixes.length;
+    }
+
+    /**
+     * Returns the maximum number of prefixes this registry can hold, including the empty prefix.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    // returns the ordinal, or -1 if the registry is full
+    private synchronized int add(final String prefix) {
+        final Table t = table;
+        final int existing = ordinal(prefix);
+        if (existing >= 0) {
+            return existing;
+        }
+        if (t.prefixes.length >= capacity) {
+            return -1;
+        }
+        final String[] prefixes = Arrays.copyOf(t.prefixes, t.prefixes.length + 1);
+        prefixes[t.prefixes.length] = prefix;
+        table = new Table(prefixes);
+        return t.prefixes.length;
+    }
+
+    private static boolean regionMatches(final String candidate, final CharSequence input, final int start) {
+        for (int i = 0; i < candidate.length(); i++) {
+            if (candidate.charAt(i) != input.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionMatches(final String candidate, final byte[] input, final int start) {
+        for (int i = 0; i < candidate.length(); i++) {
+            if (candidate.charAt(i) != (input[start + i] & 0xFF)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionMatches(final String candidate, final ByteBuffer input, final int start) {
+        for (int i = 0; i < candidate.length(); i++) {
+            if (candidate.charAt(i) != (input.get(start + i) & 0xFF)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    // an immutable snapshot of the registry: an open addressing hash table plus the prefixes by ordinal
+    private static final class Table {
+
+        final String[] prefixes;
+        final String[] slots;
+        final int[] ordinals;
+        final int mask;
+
+        Table(final String[] prefixes) {
+            this.prefixes = prefixes;
+            // keep the load factor at or below 0.5
+            final int size = Integer.highestOneBit(Math.max(2, prefixes.length) * 2 - 1) << 1;
+            this.slots = new String[size];
+            this.ordinals = new int[size];
+            this.mask = size - 1;
+            for (int ordinal = 0; ordinal < prefixes.length; ordinal++) {
+                int i = spread(prefixes[ordinal].hashCode()) & mask;
+                while (slots[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                slots[i] = prefixes[ordinal];
+                ordinals[i] = ordinal;
+            }
+        }
+    }
+}
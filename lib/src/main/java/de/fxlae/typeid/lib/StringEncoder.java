@@ -0,0 +1,23 @@
+package de.fxlae.typeid.lib;
+
+// creates the textual representation of TypeIDs as Strings. the implementation used by TypeIdLib.encode
+// can be selected with the system property "de.fxlae.typeid.encoder":
+// - "pairs" (default): encodes two characters per table lookup into a Latin-1 byte[]
+// - "chars": encodes one character per table lookup into a char[], which the String constructor compresses
+interface StringEncoder {
+
+    String PROPERTY = "de.fxlae.typeid.encoder";
+
+    StringEncoder CHARS = TypeIdLib::encodeWithChars;
+
+    StringEncoder PAIRS = TypeIdLib::encodeWithPairs;
+
+    StringEncoder SELECTED = select(System.getProperty(PROPERTY, "pairs"));
+
+    String encode(String prefix, long msb, long lsb);
+
+    // unknown values fall back to the default, failing here would make TypeIdLib unusable
+    static StringEncoder select(final String name) {
+        return "chars".equals(name) ? CHARS : PAIRS;
+    }
+}
@@ -0,0 +1,28 @@
+package de.fxlae.typeid.lib;
+
+// validates and decodes the 26 ASCII encoded suffix characters of a TypeID in one go. the scalar
+// implementation is always available, a SIMD implementation based on jdk.incubator.vector is shipped
+// in the multi-release layer of the jar and preferred if the module is resolved and the platform
+// supports 256 bit vectors.
+interface SuffixDecoder {
+
+    SuffixDecoder SCALAR = TypeIdLib::decodeSuffix;
+
+    SuffixDecoder PREFERRED = loadPreferred();
+
+    // returns true and stores the msb in out[0] and the lsb in out[1] if the suffix at the offset is
+    // valid, otherwise returns false. there must be at least 26 bytes starting at the offset.
+    boolean decode(byte[] src, int offset, long[] out);
+
+    private static SuffixDecoder loadPreferred() {
+        try {
+            return (SuffixDecoder) Class.forName("de.fxlae.typeid.lib.VectorSuffixDecoder")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // not shipped, the incubator module is not resolved (--add-modules jdk.incubator.vector)
+            // or the platform lacks suitable vector instructions
+            return SCALAR;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package de.fxlae.typeid.lib;
+
+import java.util.UUID;
+
+/**
+ * Consumes TypeIDs given by their parts, so that neither a {@code TypeId} nor a {@link UUID} has to be created.
+ */
+@FunctionalInterface
+public interface TypeIdConsumer {
+
+    /**
+     * Called for each TypeID.
+     *
+     * @param prefix the prefix, might be an empty string
+     * @param msb    the most significant bits of the {@link UUID}
+     * @param lsb    the least significant bits of the {@link UUID}
+     */
+    void accept(String prefix, long msb, long lsb);
+}
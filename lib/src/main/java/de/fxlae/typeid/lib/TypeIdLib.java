@@ -1,10 +1,18 @@
 package de.fxlae.typeid.lib;
 
-import com.fasterxml.uuid.Generators;
-import com.fasterxml.uuid.impl.TimeBasedEpochGenerator;
-
 import static java.util.Objects.requireNonNull;
 
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.function.BiFunction;
@@ -13,10 +21,18 @@ import java.util.function.Function;
 public final class TypeIdLib {
 
     public static final String VALID_REF = "";
+    private static final long VALID = 0;
+    private static final ParseError[] PARSE_ERRORS = ParseError.values();
     private static final char SEPARATOR = '_';
     private static final int PREFIX_MAX_LENGTH = 63;
     private static final String SUFFIX_ALPHABET = "0123456789abcdefghjkmnpqrstvwxyz";
     private static final int SUFFIX_LENGTH = 26;
+    private static final char[] SUFFIX_CHARS = SUFFIX_ALPHABET.toCharArray();
+    private static final byte[] SUFFIX_BYTES = SUFFIX_ALPHABET.getBytes(StandardCharsets.US_ASCII);
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC = 0x8000_0000_0000_0000L;
+    private static final long MAX_TIMESTAMP = (1L << 48) - 1;
+    private static final String TIMESTAMP_OUT_OF_RANGE = "Timestamp out of range, must fit into 48 bits of milliseconds since the Unix epoch";
 
     // inspired by base32.go from the official go implementation
     // https://github.com/jetpack-io/typeid-go/blob/main/base32/base32.go
@@ -55,36 +71,82 @@ public final class TypeIdLib {
             NOOP, NOOP, NOOP, NOOP, NOOP, NOOP, NOOP, NOOP, NOOP, NOOP,
             NOOP, NOOP, NOOP, NOOP, NOOP, NOOP
     };
-    private static final TimeBasedEpochGenerator generator = Generators.timeBasedEpochGenerator();
+
+    // lookup: [10 bit block] -> the two ASCII characters encoding it, the first one in the high byte
+    private static final short[] SUFFIX_PAIRS = createSuffixPairs();
+
+    // lookup: [ascii pos] -> value of the hex digit, NOOP for other characters
+    private static final long[] HEX_LOOKUP = createHexLookup();
+
+    private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+
+    private static final int UUID_TEXT_LENGTH = 36;
+
+    // writes both characters of a pair with a single store
+    private static final VarHandle SHORT_BIG_ENDIAN = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+
+    private static final UuidV7Generator generator = new UuidV7Generator();
 
     private TypeIdLib() {
     }
 
-    private static UUID decodeSuffixOnInput(final String input, final int separatorIndex) {
+    private static UUID decodeSuffixOnInput(final CharSequence input, final int separatorIndex) {
+        return decodeSuffix(input, (separatorIndex == -1) ? 0 : separatorIndex + 1);
+    }
 
-        final int start = (separatorIndex == -1) ? 0 : separatorIndex + 1;
+    // decodes the 26 suffix characters starting at the given index, which must have been validated before
+    public static UUID decodeSuffix(final CharSequence input, final int start) {
+        return new UUID(decodeSuffixMsb(input, start), decodeSuffixLsb(input, start));
+    }
 
-        long lsb = 0;
+    // validates and decodes the 26 ASCII encoded suffix characters at the offset, see SuffixDecoder
+    static boolean decodeSuffix(final byte[] src, final int offset, final long[] out) {
+
+        final byte first = src[offset];
+        if (first < '0' || first > '7') {
+            return false;
+        }
+
+        // NOOP has bits above the lowest five set, so a single check after decoding is sufficient
+        long any = 0;
         long msb = 0;
+        for (int i = offset; i < offset + 13; i++) {
+            final long block = SUFFIX_LOOKUP[src[i] & 0xFF];
+            any |= block;
+            msb = (msb << 5) | block;
+        }
 
-        // decode characters [25] to [14] into the LSBs
-        lsb |= (SUFFIX_LOOKUP[input.charAt(25 + start)]);
-        lsb |= (SUFFIX_LOOKUP[input.charAt(24 + start)]) << 5;
-        lsb |= (SUFFIX_LOOKUP[input.charAt(23 + start)]) << 10;
-        lsb |= (SUFFIX_LOOKUP[input.charAt(22 + start)]) << 15;
-        lsb |= (SUFFIX_LOOKUP[input.charAt(21 + start)]) << 20;
-        lsb |= (SUFFIX_LOOKUP[input.charAt(20 + start)]) << 25;
-        lsb |= (SUFFIX_LOOKUP[input.charAt(19 + start)]) << 30;
-        lsb |= (SUFFIX_LOOKUP[input.charAt(18 + start)]) << 35;
-        lsb |= (SUFFIX_LOOKUP[input.charAt(17 + start)]) << 40;
-        lsb |= (SUFFIX_LOOKUP[input.charAt(16 + start)]) << 45;
-        lsb |= (SUFFIX_LOOKUP[input.charAt(15 + start)]) << 50;
-        lsb |= (SUFFIX_LOOKUP[input.charAt(14 + start)]) << 55;
+        // the overlap between MSBs and LSBs (character [13])
+        final long overlap = SUFFIX_LOOKUP[src[offset + 13] & 0xFF];
+        any |= overlap;
+        msb = (msb << 1) | ((overlap & 0x10) >>> 4);
+
+        long lsb = overlap & 0xF;
+        for (int i = offset + 14; i < offset + SUFFIX_LENGTH; i++) {
+            final long block = SUFFIX_LOOKUP[src[i] & 0xFF];
+            any |= block;
+            lsb = (lsb << 5) | block;
+        }
+
+        if ((any & ~0x1FL) != 0) {
+            return false;
+        }
+        out[0] = msb;
+        out[1] = lsb;
+        return true;
+    }
+
+    // whether the character is part of the suffix alphabet, see TypeIdScanner
+    static boolean isSuffixCharacter(final int c) {
+        return c >= 0 && c < SUFFIX_LOOKUP.length && SUFFIX_LOOKUP[c] != NOOP;
+    }
+
+    public static long decodeSuffixMsb(final CharSequence input, final int start) {
+
+        long msb = 0;
 
         // decode the overlap between LSBs and MSBs (character [13])
-        long bitsAtOverlap = SUFFIX_LOOKUP[input.charAt(13 + start)];
-        lsb |= (bitsAtOverlap & 0xF) << 60;
-        msb |= (bitsAtOverlap & 0x10) >>> 4;
+        msb |= (SUFFIX_LOOKUP[input.charAt(13 + start)] & 0x10) >>> 4;
 
         // decode characters [12] to [0] into the MSBs
         msb |= (SUFFIX_LOOKUP[input.charAt(12 + start)]) << 1;
@@ -101,160 +163,886 @@ public final class TypeIdLib {
         msb |= (SUFFIX_LOOKUP[input.charAt(1 + start)]) << 56;
         msb |= (SUFFIX_LOOKUP[input.charAt(start)]) << 61;
 
-        return new UUID(msb, lsb);
+        return msb;
+    }
+
+    // decodes only the UUIDv7 timestamp, which is exactly covered by characters [0] to [9]
+    public static long decodeTimestampMillis(final CharSequence input, final int start) {
+        long timestamp = 0;
+        for (int i = start; i < start + 10; i++) {
+            timestamp = timestamp << 5 | SUFFIX_LOOKUP[input.charAt(i)];
+        }
+        return timestamp;
+    }
+
+    public static long decodeSuffixLsb(final CharSequence input, final int start) {
+
+        long lsb = 0;
+
+        // decode characters [25] to [14] into the LSBs
+        lsb |= (SUFFIX_LOOKUP[input.charAt(25 + start)]);
+        lsb |= (SUFFIX_LOOKUP[input.charAt(24 + start)]) << 5;
+        lsb |= (SUFFIX_LOOKUP[input.charAt(23 + start)]) << 10;
+        lsb |= (SUFFIX_LOOKUP[input.charAt(22 + start)]) << 15;
+        lsb |= (SUFFIX_LOOKUP[input.charAt(21 + start)]) << 20;
+        lsb |= (SUFFIX_LOOKUP[input.charAt(20 + start)]) << 25;
+        lsb |= (SUFFIX_LOOKUP[input.charAt(19 + start)]) << 30;
+        lsb |= (SUFFIX_LOOKUP[input.charAt(18 + start)]) << 35;
+        lsb |= (SUFFIX_LOOKUP[input.charAt(17 + start)]) << 40;
+        lsb |= (SUFFIX_LOOKUP[input.charAt(16 + start)]) << 45;
+        lsb |= (SUFFIX_LOOKUP[input.charAt(15 + start)]) << 50;
+        lsb |= (SUFFIX_LOOKUP[input.charAt(14 + start)]) << 55;
+
+        // decode the overlap between LSBs and MSBs (character [13])
+        lsb |= (SUFFIX_LOOKUP[input.charAt(13 + start)] & 0xF) << 60;
+
+        return lsb;
     }
 
     public static String encode(final String prefix, final UUID uuid) {
+        return StringEncoder.SELECTED.encode(prefix, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    // same as above, for a UUID given by its most and least significant bits
+    public static String encode(final String prefix, final long msb, final long lsb) {
+        return StringEncoder.SELECTED.encode(prefix, msb, lsb);
+    }
+
+    // builds the String from chars, which are compressed to Latin-1 by the String constructor
+    static String encodeWithChars(final String prefix, final long msb, final long lsb) {
+        final char[] chars = new char[encodedLength(prefix)];
+        final int pos = encodedLength(prefix) - SUFFIX_LENGTH;
+        if (pos > 0) {
+            prefix.getChars(0, prefix.length(), chars, 0);
+            chars[pos - 1] = SEPARATOR;
+        }
+        encodeSuffix(msb, lsb, chars, pos);
+        return new String(chars);
+    }
+
+    // builds the String from ASCII bytes, which is a plain copy for compact Strings
+    static String encodeWithPairs(final String prefix, final long msb, final long lsb) {
+        final byte[] bytes = new byte[encodedLength(prefix)];
+        final int pos = encodedLength(prefix) - SUFFIX_LENGTH;
+        if (pos > 0) {
+            for (int i = 0; i < prefix.length(); i++) {
+                bytes[i] = (byte) prefix.charAt(i);
+            }
+            bytes[pos - 1] = SEPARATOR;
+        }
+        encodeSuffix(msb, lsb, bytes, pos);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    // number of chars (or bytes, as TypeIDs are pure ASCII) the textual representation takes up
+    public static int encodedLength(final String prefix) {
+        return prefix.isEmpty() ? SUFFIX_LENGTH : prefix.length() + 1 + SUFFIX_LENGTH;
+    }
+
+    // the following encode variants write into a caller-supplied destination and
+    // return the number of chars (or bytes) written. the prefix is validated first (a single
+    // lookup for registered prefixes), as it is copied char by char.
+
+    public static int encode(final String prefix, final UUID uuid, final char[] dst, final int offset) {
+
+        requireValidPrefix(prefix);
+        final int length = encodedLength(prefix);
+        Objects.checkFromIndexSize(offset, length, dst.length);
+
+        encodeSuffix(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dst, writePrefix(prefix, dst, offset));
+        return length;
+    }
+
+    public static int encode(final String prefix, final UUID uuid, final byte[] dst, final int offset) {
+
+        requireValidPrefix(prefix);
+        final int length = encodedLength(prefix);
+        Objects.checkFromIndexSize(offset, length, dst.length);
+
+        encodeSuffix(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dst, writePrefix(prefix, dst, offset));
+        return length;
+    }
+
+    // writes the prefix and the separator (if the prefix is not empty), returns the index where the suffix starts
+    private static int writePrefix(final String prefix, final char[] dst, final int offset) {
+        if (prefix.isEmpty()) {
+            return offset;
+        }
+        prefix.getChars(0, prefix.length(), dst, offset);
+        dst[offset + prefix.length()] = SEPARATOR;
+        return offset + prefix.length() + 1;
+    }
+
+    private static int writePrefix(final String prefix, final byte[] dst, final int offset) {
+        int pos = offset;
+        if (!prefix.isEmpty()) {
+            for (int i = 0; i < prefix.length(); i++) {
+                dst[pos++] = (byte) prefix.charAt(i);
+            }
+            dst[pos++] = SEPARATOR;
+        }
+        return pos;
+    }
+
+    // writes at the buffer's current position and advances it
+    public static int encode(final String prefix, final UUID uuid, final ByteBuffer dst) {
+
+        requireValidPrefix(prefix);
+        final int length = encodedLength(prefix);
+        if (dst.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+
+        final int position = dst.position();
+        if (dst.hasArray()) {
+            encode(prefix, uuid, dst.array(), dst.arrayOffset() + position);
+        } else {
+            int pos = position;
+            if (!prefix.isEmpty()) {
+                for (int i = 0; i < prefix.length(); i++) {
+                    dst.put(pos++, (byte) prefix.charAt(i));
+                }
+                dst.put(pos++, (byte) SEPARATOR);
+            }
+            final long msb = uuid.getMostSignificantBits();
+            final long lsb = uuid.getLeastSignificantBits();
+            for (int i = 0; i < SUFFIX_LENGTH; i++) {
+                dst.put(pos++, (byte) SUFFIX_CHARS[suffixBlock(msb, lsb, i)]);
+            }
+        }
+        dst.position(position + length);
+        return length;
+    }
+
+    public static int encode(final String prefix, final UUID uuid, final Appendable dst) throws IOException {
+
+        requireValidPrefix(prefix);
+        if (!prefix.isEmpty()) {
+            dst.append(prefix).append(SEPARATOR);
+        }
 
         final long msb = uuid.getMostSignificantBits();
         final long lsb = uuid.getLeastSignificantBits();
+        for (int i = 0; i < SUFFIX_LENGTH; i++) {
+            dst.append(SUFFIX_CHARS[suffixBlock(msb, lsb, i)]);
+        }
+        return encodedLength(prefix);
+    }
 
-        StringBuilder sb;
-        if (prefix.isEmpty()) {
-            sb = new StringBuilder(26);
+    // returns the 5 bit block of the suffix character at the given index (0 to 25)
+    private static int suffixBlock(final long msb, final long lsb, final int index) {
+        if (index < 13) {
+            return (int) (msb >>> (61 - 5 * index)) & 0x1F;
+        } else if (index == 13) {
+            // the overlap between MSBs (1 bit) and LSBs (4 bits)
+            return (int) (((msb & 0x1) << 4) | (lsb >>> 60));
         } else {
-            sb = new StringBuilder(27 + prefix.length());
-            sb.append(prefix).append(SEPARATOR);
+            return (int) (lsb >>> (55 - 5 * (index - 14))) & 0x1F;
         }
+    }
+
+    public static void encodeSuffix(final long msb, final long lsb, final char[] dst, final int offset) {
+
+        Objects.checkFromIndexSize(offset, SUFFIX_LENGTH, dst.length);
 
         // encode the MSBs except the last bit, as the block it belongs to overlaps with the LSBs
-        sb.append(SUFFIX_ALPHABET.charAt((int) (msb >>> 61) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (msb >>> 56) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (msb >>> 51) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (msb >>> 46) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (msb >>> 41) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (msb >>> 36) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (msb >>> 31) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (msb >>> 26) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (msb >>> 21) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (msb >>> 16) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (msb >>> 11) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (msb >>> 6) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (msb >>> 1) & 0x1F));
+        dst[offset] = SUFFIX_CHARS[(int) (msb >>> 61) & 0x1F];
+        dst[offset + 1] = SUFFIX_CHARS[(int) (msb >>> 56) & 0x1F];
+        dst[offset + 2] = SUFFIX_CHARS[(int) (msb >>> 51) & 0x1F];
+        dst[offset + 3] = SUFFIX_CHARS[(int) (msb >>> 46) & 0x1F];
+        dst[offset + 4] = SUFFIX_CHARS[(int) (msb >>> 41) & 0x1F];
+        dst[offset + 5] = SUFFIX_CHARS[(int) (msb >>> 36) & 0x1F];
+        dst[offset + 6] = SUFFIX_CHARS[(int) (msb >>> 31) & 0x1F];
+        dst[offset + 7] = SUFFIX_CHARS[(int) (msb >>> 26) & 0x1F];
+        dst[offset + 8] = SUFFIX_CHARS[(int) (msb >>> 21) & 0x1F];
+        dst[offset + 9] = SUFFIX_CHARS[(int) (msb >>> 16) & 0x1F];
+        dst[offset + 10] = SUFFIX_CHARS[(int) (msb >>> 11) & 0x1F];
+        dst[offset + 11] = SUFFIX_CHARS[(int) (msb >>> 6) & 0x1F];
+        dst[offset + 12] = SUFFIX_CHARS[(int) (msb >>> 1) & 0x1F];
 
         // encode the overlap between MSBs (1 bit) and LSBs (4 bits)
-        long overlap = ((msb & 0x1) << 4) | (lsb >>> 60);
-        sb.append(SUFFIX_ALPHABET.charAt((int) overlap));
+        dst[offset + 13] = SUFFIX_CHARS[(int) (((msb & 0x1) << 4) | (lsb >>> 60))];
 
         // encode the rest of LSBs
-        sb.append(SUFFIX_ALPHABET.charAt((int) (lsb >>> 55) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (lsb >>> 50) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (lsb >>> 45) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (lsb >>> 40) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (lsb >>> 35) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (lsb >>> 30) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (lsb >>> 25) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (lsb >>> 20) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (lsb >>> 15) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (lsb >>> 10) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) (lsb >>> 5) & 0x1F))
-                .append(SUFFIX_ALPHABET.charAt((int) lsb & 0x1F));
-
-        return sb.toString();
+        dst[offset + 14] = SUFFIX_CHARS[(int) (lsb >>> 55) & 0x1F];
+        dst[offset + 15] = SUFFIX_CHARS[(int) (lsb >>> 50) & 0x1F];
+        dst[offset + 16] = SUFFIX_CHARS[(int) (lsb >>> 45) & 0x1F];
+        dst[offset + 17] = SUFFIX_CHARS[(int) (lsb >>> 40) & 0x1F];
+        dst[offset + 18] = SUFFIX_CHARS[(int) (lsb >>> 35) & 0x1F];
+        dst[offset + 19] = SUFFIX_CHARS[(int) (lsb >>> 30) & 0x1F];
+        dst[offset + 20] = SUFFIX_CHARS[(int) (lsb >>> 25) & 0x1F];
+        dst[offset + 21] = SUFFIX_CHARS[(int) (lsb >>> 20) & 0x1F];
+        dst[offset + 22] = SUFFIX_CHARS[(int) (lsb >>> 15) & 0x1F];
+        dst[offset + 23] = SUFFIX_CHARS[(int) (lsb >>> 10) & 0x1F];
+        dst[offset + 24] = SUFFIX_CHARS[(int) (lsb >>> 5) & 0x1F];
+        dst[offset + 25] = SUFFIX_CHARS[(int) lsb & 0x1F];
+    }
+
+    public static void encodeSuffix(final long msb, final long lsb, final byte[] dst, final int offset) {
+
+        Objects.checkFromIndexSize(offset, SUFFIX_LENGTH, dst.length);
+
+        // same as above, but for ASCII bytes and two characters (10 bits) at a time
+        setSuffixPair(dst, offset, msb >>> 56);
+        setSuffixPair(dst, offset + 2, msb >>> 46);
+        setSuffixPair(dst, offset + 4, msb >>> 36);
+        setSuffixPair(dst, offset + 6, msb >>> 26);
+        setSuffixPair(dst, offset + 8, msb >>> 16);
+        setSuffixPair(dst, offset + 10, msb >>> 6);
+        setSuffixPair(dst, offset + 12, (msb << 4) | (lsb >>> 60));
+        setSuffixPair(dst, offset + 14, lsb >>> 50);
+        setSuffixPair(dst, offset + 16, lsb >>> 40);
+        setSuffixPair(dst, offset + 18, lsb >>> 30);
+        setSuffixPair(dst, offset + 20, lsb >>> 20);
+        setSuffixPair(dst, offset + 22, lsb >>> 10);
+        setSuffixPair(dst, offset + 24, lsb);
+    }
+
+    // writes the characters of the lowest 10 bits of the block
+    private static void setSuffixPair(final byte[] dst, final int index, final long block) {
+        SHORT_BIG_ENDIAN.set(dst, index, SUFFIX_PAIRS[(int) block & 0x3FF]);
+    }
+
+    private static short[] createSuffixPairs() {
+        final short[] pairs = new short[1024];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = (short) ((SUFFIX_BYTES[i >>> 5] << 8) | SUFFIX_BYTES[i & 0x1F]);
+        }
+        return pairs;
+    }
+
+    // the following transcode between the canonical textual representation of a UUID (8-4-4-4-12 hex digits,
+    // e.g. "01890a5d-ac96-774b-bcce-b302099a8057") and the textual representation of a TypeID in a single pass,
+    // without creating a UUID or a String in between. this is meant for bulk migrations of stored ids.
+
+    // transcodes the UUID text at srcOffset (hex digits in any case) into a TypeID text with the given prefix at
+    // dstOffset. returns the number of chars written, or -1 if the UUID text is invalid. the prefix is validated
+    // like in requireValidPrefix, which is a lookup only for registered prefixes.
+    public static int uuidToTypeId(final String prefix, final char[] src, final int srcOffset, final char[] dst, final int dstOffset) {
+
+        requireValidPrefix(prefix);
+        Objects.checkFromIndexSize(srcOffset, UUID_TEXT_LENGTH, src.length);
+        final int length = encodedLength(prefix);
+        Objects.checkFromIndexSize(dstOffset, length, dst.length);
+
+        // NOOP has bits above the lowest four set, so a single check after decoding is sufficient
+        long any = 0;
+        long msb = 0;
+        long lsb = 0;
+        for (int i = 0; i < UUID_TEXT_LENGTH; i++) {
+            final char c = src[srcOffset + i];
+            if (isUuidDash(i)) {
+                if (c != '-') {
+                    return -1;
+                }
+                continue;
+            }
+            final long digit = c < HEX_LOOKUP.length ? HEX_LOOKUP[c] : NOOP;
+            any |= digit;
+            if (i < 18) {
+                msb = (msb << 4) | digit;
+            } else {
+                lsb = (lsb << 4) | digit;
+            }
+        }
+        if ((any & ~0xFL) != 0) {
+            return -1;
+        }
+
+        encodeSuffix(msb, lsb, dst, writePrefix(prefix, dst, dstOffset));
+        return length;
+    }
+
+    // same as above, for ASCII bytes
+    public static int uuidToTypeId(final String prefix, final byte[] src, final int srcOffset, final byte[] dst, final int dstOffset) {
+
+        requireValidPrefix(prefix);
+        Objects.checkFromIndexSize(srcOffset, UUID_TEXT_LENGTH, src.length);
+        final int length = encodedLength(prefix);
+        Objects.checkFromIndexSize(dstOffset, length, dst.length);
+
+        long any = 0;
+        long msb = 0;
+        long lsb = 0;
+        for (int i = 0; i < UUID_TEXT_LENGTH; i++) {
+            final byte b = src[srcOffset + i];
+            if (isUuidDash(i)) {
+                if (b != '-') {
+                    return -1;
+                }
+                continue;
+            }
+            // negative bytes are not ASCII and hit NOOP entries of the upper half
+            final long digit = HEX_LOOKUP[b & 0xFF];
+            any |= digit;
+            if (i < 18) {
+                msb = (msb << 4) | digit;
+            } else {
+                lsb = (lsb << 4) | digit;
+            }
+        }
+        if ((any & ~0xFL) != 0) {
+            return -1;
+        }
+
+        encodeSuffix(msb, lsb, dst, writePrefix(prefix, dst, dstOffset));
+        return length;
+    }
+
+    // transcodes the TypeID text of the given length at srcOffset into the UUID text (lowercase) at dstOffset,
+    // dropping the prefix. returns the number of chars written (36), or -1 if the TypeID text is invalid.
+    public static int typeIdToUuid(final char[] src, final int srcOffset, final int length, final char[] dst, final int dstOffset) {
+
+        Objects.checkFromIndexSize(srcOffset, length, src.length);
+        Objects.checkFromIndexSize(dstOffset, UUID_TEXT_LENGTH, dst.length);
+
+        final int start = srcOffset + length - SUFFIX_LENGTH;
+        if (start < srcOffset || !isValidPrefix(src, srcOffset, start)) {
+            return -1;
+        }
+
+        final char first = src[start];
+        if (first < '0' || first > '7') {
+            return -1;
+        }
+        long any = 0;
+        long msb = 0;
+        long lsb = 0;
+        for (int i = start; i < start + SUFFIX_LENGTH; i++) {
+            final char c = src[i];
+            final long block = c < SUFFIX_LOOKUP.length ? SUFFIX_LOOKUP[c] : NOOP;
+            any |= block;
+            // the 130 bits of the suffix, of which the upper two are zero, are shifted through both longs
+            msb = (msb << 5) | (lsb >>> 59);
+            lsb = (lsb << 5) | block;
+        }
+        if ((any & ~0x1FL) != 0) {
+            return -1;
+        }
+
+        writeUuidText(msb, lsb, dst, dstOffset);
+        return UUID_TEXT_LENGTH;
+    }
+
+    // same as above, for ASCII bytes
+    public static int typeIdToUuid(final byte[] src, final int srcOffset, final int length, final byte[] dst, final int dstOffset) {
+
+        Objects.checkFromIndexSize(srcOffset, length, src.length);
+        Objects.checkFromIndexSize(dstOffset, UUID_TEXT_LENGTH, dst.length);
+
+        final int start = srcOffset + length - SUFFIX_LENGTH;
+        if (start < srcOffset || !isValidPrefix(src, srcOffset, start)) {
+            return -1;
+        }
+
+        final byte first = src[start];
+        if (first < '0' || first > '7') {
+            return -1;
+        }
+        long any = 0;
+        long msb = 0;
+        long lsb = 0;
+        for (int i = start; i < start + SUFFIX_LENGTH; i++) {
+            final long block = SUFFIX_LOOKUP[src[i] & 0xFF];
+            any |= block;
+            msb = (msb << 5) | (lsb >>> 59);
+            lsb = (lsb << 5) | block;
+        }
+        if ((any & ~0x1FL) != 0) {
+            return -1;
+        }
+
+        writeUuidText(msb, lsb, dst, dstOffset);
+        return UUID_TEXT_LENGTH;
+    }
+
+    private static void writeUuidText(final long msb, final long lsb, final char[] dst, final int offset) {
+        // the shift wraps around from 0 to 60 when switching from the msb to the lsb
+        for (int i = 0, shift = 60; i < UUID_TEXT_LENGTH; i++) {
+            if (isUuidDash(i)) {
+                dst[offset + i] = '-';
+            } else {
+                dst[offset + i] = HEX_CHARS[(int) ((i < 18 ? msb : lsb) >>> shift) & 0xF];
+                shift = (shift - 4) & 0x3F;
+            }
+        }
+    }
+
+    private static void writeUuidText(final long msb, final long lsb, final byte[] dst, final int offset) {
+        for (int i = 0, shift = 60; i < UUID_TEXT_LENGTH; i++) {
+            if (isUuidDash(i)) {
+                dst[offset + i] = '-';
+            } else {
+                dst[offset + i] = (byte) HEX_CHARS[(int) ((i < 18 ? msb : lsb) >>> shift) & 0xF];
+                shift = (shift - 4) & 0x3F;
+            }
+        }
+    }
+
+    private static boolean isUuidDash(final int index) {
+        return index == 8 || index == 13 || index == 18 || index == 23;
+    }
+
+    // validates the prefix and the separator between from and the suffix start, an empty range is the empty prefix
+    private static boolean isValidPrefix(final char[] src, final int from, final int suffixStart) {
+        if (suffixStart == from) {
+            return true;
+        }
+        final int separatorIndex = suffixStart - 1;
+        if (separatorIndex == from || separatorIndex - from > PREFIX_MAX_LENGTH || src[separatorIndex] != SEPARATOR
+                || src[from] == SEPARATOR || src[separatorIndex - 1] == SEPARATOR) {
+            return false;
+        }
+        for (int i = from; i < separatorIndex; i++) {
+            final char c = src[i];
+            if (!(c >= 'a' && c <= 'z') && c != SEPARATOR) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isValidPrefix(final byte[] src, final int from, final int suffixStart) {
+        if (suffixStart == from) {
+            return true;
+        }
+        final int separatorIndex = suffixStart - 1;
+        if (separatorIndex == from || separatorIndex - from > PREFIX_MAX_LENGTH || src[separatorIndex] != SEPARATOR
+                || src[from] == SEPARATOR || src[separatorIndex - 1] == SEPARATOR) {
+            return false;
+        }
+        for (int i = from; i < separatorIndex; i++) {
+            final byte b = src[i];
+            if (!(b >= 'a' && b <= 'z') && b != SEPARATOR) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long[] createHexLookup() {
+        final long[] lookup = new long[256];
+        Arrays.fill(lookup, NOOP);
+        for (int i = 0; i < 10; i++) {
+            lookup['0' + i] = i;
+        }
+        for (int i = 0; i < 6; i++) {
+            lookup['a' + i] = 10 + i;
+            lookup['A' + i] = 10 + i;
+        }
+        return lookup;
     }
 
     public static <T> T parse(
             String text,
             BiFunction<String, UUID, T> successHandler,
             Function<String, T> errorHandler) {
+        return parse((CharSequence) text, successHandler, errorHandler);
+    }
+
+    public static <T> T parse(
+            CharSequence text,
+            BiFunction<String, UUID, T> successHandler,
+            Function<String, T> errorHandler) {
 
         requireNonNull(successHandler);
         requireNonNull(errorHandler);
 
-        if (text == null || text.isEmpty()) {
-            return errorHandler.apply("Provided TypeId must not be null or empty");
+        if (text == null || text.length() == 0) {
+            return errorHandler.apply(ParseError.NULL_OR_EMPTY.message());
         }
 
-        var separatorIndex = text.lastIndexOf(SEPARATOR);
+        var separatorIndex = lastIndexOfSeparator(text);
+        var suffixStatus = suffixStatusOnInput(text, separatorIndex);
+        if (suffixStatus != VALID) {
+            return errorHandler.apply(error(suffixStatus).message());
+        }
 
-        // empty prefix, but with unexpected separator
-        if (separatorIndex == 0) {
-            return errorHandler.apply("TypeId with empty prefix must not contain the separator '_'");
+        return parsePrefix(text, separatorIndex, decodeSuffixOnInput(text, separatorIndex), successHandler, errorHandler);
+    }
+
+    // like parse, but reports errors as ParseError and position, without any String or exception
+    public static <T> T parseWithErrorCode(
+            CharSequence text,
+            BiFunction<String, UUID, T> successHandler,
+            ParseErrorHandler<T> errorHandler) {
+
+        requireNonNull(successHandler);
+        requireNonNull(errorHandler);
+
+        if (text == null || text.length() == 0) {
+            return errorHandler.onError(ParseError.NULL_OR_EMPTY, -1);
+        }
+
+        var separatorIndex = lastIndexOfSeparator(text);
+        var suffixStatus = suffixStatusOnInput(text, separatorIndex);
+        if (suffixStatus != VALID) {
+            return errorHandler.onError(error(suffixStatus), position(suffixStatus));
+        }
+
+        var prefix = lookupPrefix(text, separatorIndex);
+        if (prefix == null) {
+            var prefixStatus = prefixStatus(text, separatorIndex);
+            if (prefixStatus != VALID) {
+                return errorHandler.onError(error(prefixStatus), position(prefixStatus));
+            }
+            prefix = extractPrefix(text, separatorIndex);
+        }
+
+        return successHandler.apply(prefix, decodeSuffixOnInput(text, separatorIndex));
+    }
+
+    // validates the whole text without decoding it or extracting the prefix, returns VALID_REF or the error message
+    public static String validate(final CharSequence text) {
+
+        if (text == null || text.length() == 0) {
+            return ParseError.NULL_OR_EMPTY.message();
+        }
+
+        var separatorIndex = lastIndexOfSeparator(text);
+        var suffixStatus = suffixStatusOnInput(text, separatorIndex);
+        if (suffixStatus != VALID) {
+            return error(suffixStatus).message();
+        }
+
+        if (lookupPrefix(text, separatorIndex) == null) {
+            var prefixStatus = prefixStatus(text, separatorIndex);
+            if (prefixStatus != VALID) {
+                return error(prefixStatus).message();
+            }
         }
 
-        var suffixValidation = validateSuffixOnInput(text, separatorIndex);
-        if (suffixValidation != VALID_REF) {
-            return errorHandler.apply(suffixValidation);
+        return VALID_REF;
+    }
+
+    // completes parsing once the suffix has been validated and decoded
+    private static <T> T parsePrefix(
+            CharSequence text,
+            int separatorIndex,
+            UUID uuid,
+            BiFunction<String, UUID, T> successHandler,
+            Function<String, T> errorHandler) {
+
+        // known prefixes are matched in place, neither validated again nor copied
+        var prefix = lookupPrefix(text, separatorIndex);
+        if (prefix == null) {
+            var prefixStatus = prefixStatus(text, separatorIndex);
+            if (prefixStatus != VALID) {
+                return errorHandler.apply(error(prefixStatus).message());
+            }
+            prefix = extractPrefix(text, separatorIndex);
         }
 
-        var prefixValidation = validatePrefixOnInput(text, separatorIndex);
-        if (prefixValidation != TypeIdLib.VALID_REF) {
-            return errorHandler.apply(prefixValidation);
+        return successHandler.apply(prefix, uuid);
+    }
+
+    // parses ASCII (or UTF-8) encoded bytes in place, without creating a String for the whole input
+    public static <T> T parse(
+            byte[] buf,
+            int offset,
+            int length,
+            BiFunction<String, UUID, T> successHandler,
+            Function<String, T> errorHandler) {
+        Objects.checkFromIndexSize(offset, length, buf.length);
+        requireNonNull(successHandler);
+        requireNonNull(errorHandler);
+        var text = new ByteArrayCharSequence(buf, offset, length);
+
+        // fast path: the suffix is validated and decoded in one go, with SIMD instructions if available
+        var start = length - SUFFIX_LENGTH;
+        if (start == 0 || (start > 1 && buf[offset + start - 1] == SEPARATOR)) {
+            var bits = new long[2];
+            if (SuffixDecoder.PREFERRED.decode(buf, offset + start, bits)) {
+                return parsePrefix(text, start - 1, new UUID(bits[0], bits[1]), successHandler, errorHandler);
+            }
         }
 
-        return successHandler.apply(
-                extractPrefix(text, separatorIndex),
-                decodeSuffixOnInput(text, separatorIndex));
+        // anything else is either invalid or has a misplaced separator, which is reported in detail
+        return parse(text, successHandler, errorHandler);
     }
 
-    private static String extractPrefix(String input, int separatorIndex) {
+    // parses the bytes between the buffer's position and limit, the position is not changed
+    public static <T> T parse(
+            ByteBuffer buf,
+            BiFunction<String, UUID, T> successHandler,
+            Function<String, T> errorHandler) {
+        if (buf.hasArray()) {
+            return parse(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining(), successHandler, errorHandler);
+        }
+        return parse(new ByteBufferCharSequence(buf, buf.position(), buf.remaining()), successHandler, errorHandler);
+    }
+
+    // decodes all texts into primitive columns: msbs[i], lsbs[i] and prefixOrdinals[i] for texts[i], where the
+    // ordinal refers to the given registry. unknown prefixes are validated and registered on first occurrence.
+    // invalid rows are flagged in the BitSet and get the ordinal -1, as are rows with a new prefix that does not
+    // fit into the registry anymore. returns the number of valid rows.
+    public static int decodeColumns(
+            final List<? extends CharSequence> texts,
+            final PrefixRegistry prefixes,
+            final long[] msbs,
+            final long[] lsbs,
+            final int[] prefixOrdinals,
+            final BitSet invalidRows) {
+
+        requireNonNull(prefixes);
+        requireNonNull(invalidRows);
+        final int n = texts.size();
+        Objects.checkFromIndexSize(0, n, msbs.length);
+        Objects.checkFromIndexSize(0, n, lsbs.length);
+        Objects.checkFromIndexSize(0, n, prefixOrdinals.length);
+
+        int valid = 0;
+        for (int i = 0; i < n; i++) {
+            final CharSequence text = texts.get(i);
+            final int ordinal = decodePrefixOrdinal(text, prefixes);
+            if (ordinal < 0) {
+                msbs[i] = 0;
+                lsbs[i] = 0;
+                prefixOrdinals[i] = -1;
+                invalidRows.set(i);
+            } else {
+                final int start = ordinal == 0 ? 0 : prefixes.prefix(ordinal).length() + 1;
+                msbs[i] = decodeSuffixMsb(text, start);
+                lsbs[i] = decodeSuffixLsb(text, start);
+                prefixOrdinals[i] = ordinal;
+                invalidRows.clear(i);
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    public static int decodeColumns(
+            final CharSequence[] texts,
+            final PrefixRegistry prefixes,
+            final long[] msbs,
+            final long[] lsbs,
+            final int[] prefixOrdinals,
+            final BitSet invalidRows) {
+        return decodeColumns(Arrays.asList(texts), prefixes, msbs, lsbs, prefixOrdinals, invalidRows);
+    }
+
+    // validates the whole text and returns the ordinal of its prefix, or -1 if the text is invalid
+    private static int decodePrefixOrdinal(final CharSequence text, final PrefixRegistry prefixes) {
+
+        if (text == null || text.length() == 0) {
+            return -1;
+        }
+
+        final int separatorIndex = lastIndexOfSeparator(text);
+        if (suffixStatusOnInput(text, separatorIndex) != VALID) {
+            return -1;
+        }
+
+        if (separatorIndex == -1) {
+            return 0;
+        }
+
+        final int ordinal = prefixes.ordinal(text, 0, separatorIndex);
+        if (ordinal >= 0) {
+            return ordinal;
+        }
+
+        if (prefixStatus(text, separatorIndex) != VALID) {
+            return -1;
+        }
+        // intern doesn't register the prefix if the registry is full, so that the lookup fails
+        return prefixes.ordinal(prefixes.intern(extractPrefix(text, separatorIndex)));
+    }
+
+    private static int lastIndexOfSeparator(final CharSequence input) {
+        for (int i = input.length() - 1; i >= 0; i--) {
+            if (input.charAt(i) == SEPARATOR) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String lookupPrefix(CharSequence input, int separatorIndex) {
+        if (separatorIndex == -1) {
+            return "";
+        } else {
+            return PrefixRegistry.shared().lookup(input, 0, separatorIndex);
+        }
+    }
+
+    private static String extractPrefix(CharSequence input, int separatorIndex) {
         if (separatorIndex == -1) {
             return "";
         } else {
-            return input.substring(0, separatorIndex);
+            return input.subSequence(0, separatorIndex).toString();
         }
     }
 
-    // validates the suffix without creating an intermediary object for it
-    private static String validateSuffixOnInput(final String input, final int separatorIndex) {
+    // validation results are packed into a long: the ordinal of the ParseError plus one in the upper half,
+    // the position in the lower half. VALID means no error.
+    private static long status(final ParseError error, final int position) {
+        return ((long) error.ordinal() + 1) << 32 | (position & 0xFFFFFFFFL);
+    }
+
+    private static ParseError error(final long status) {
+        return PARSE_ERRORS[(int) (status >>> 32) - 1];
+    }
 
-        final var start = (separatorIndex != -1) ? separatorIndex + 1 : 0;
+    private static int position(final long status) {
+        return (int) status;
+    }
+
+    // validates the separator and the suffix without creating an intermediary object for it
+    private static long suffixStatusOnInput(final CharSequence input, final int separatorIndex) {
+        // empty prefix, but with unexpected separator
+        if (separatorIndex == 0) {
+            return status(ParseError.EMPTY_PREFIX_WITH_SEPARATOR, 0);
+        }
+        return suffixStatus(input, (separatorIndex != -1) ? separatorIndex + 1 : 0);
+    }
+
+    // returns the start of the suffix if the input ends with a valid suffix that is either the whole input or
+    // preceded by a separator and a non-empty prefix, -1 otherwise. the prefix itself is not validated.
+    public static int validSuffixStart(final CharSequence input) {
+        final int start = input.length() - SUFFIX_LENGTH;
+        if (start < 0 || start == 1 || (start > 1 && input.charAt(start - 1) != SEPARATOR)) {
+            return -1;
+        }
+        return suffixStatus(input, start) == VALID ? start : -1;
+    }
+
+    // validates that the input ends with a valid suffix starting at the given index
+    public static String validateSuffix(final CharSequence input, final int start) {
+        final long status = suffixStatus(input, start);
+        return status == VALID ? VALID_REF : error(status).message();
+    }
+
+    private static long suffixStatus(final CharSequence input, final int start) {
 
         if (input.length() - start != SUFFIX_LENGTH) {
-            return "Suffix with illegal length, must be " + SUFFIX_LENGTH;
+            return status(ParseError.SUFFIX_LENGTH, start);
         }
 
         final char firstChar = input.charAt(start);
         if ((firstChar < '0' || firstChar > '7')) {
-            return "Illegal leftmost suffix character, must be one of [01234567]";
+            return status(ParseError.SUFFIX_LEFTMOST_CHARACTER, start);
         }
 
         for (int i = start; i < input.length(); i++) {
             var c = input.charAt(i);
             if (c >= SUFFIX_LOOKUP.length || SUFFIX_LOOKUP[c] == NOOP) {
-                return "Illegal character in suffix, must be one of [" + SUFFIX_ALPHABET + "]";
+                return status(ParseError.SUFFIX_CHARACTER, i);
             }
         }
 
-        return VALID_REF;
+        return VALID;
     }
 
     public static void requireValidPrefix(final String prefix) {
+        Objects.requireNonNull(prefix);
+        // registered prefixes have already been validated
+        if (PrefixRegistry.shared().ordinal(prefix) >= 0) return;
+        requireValidPrefixUncached(prefix);
+    }
+
+    // validates the prefix and returns the canonical instance from the shared registry, if there is one
+    public static String canonicalPrefix(final String prefix) {
+        Objects.requireNonNull(prefix);
+        var registry = PrefixRegistry.shared();
+        var ordinal = registry.ordinal(prefix);
+        if (ordinal >= 0) {
+            return registry.prefix(ordinal);
+        }
+        requireValidPrefixUncached(prefix);
+        return prefix;
+    }
+
+    static void requireValidPrefixUncached(final String prefix) {
         Objects.requireNonNull(prefix);
         if (prefix.isEmpty()) return;
-        var prefixValidation = validatePrefixOnInput(prefix, prefix.length());
-        if (prefixValidation != TypeIdLib.VALID_REF) {
-            throw new IllegalArgumentException(prefixValidation);
+        var prefixStatus = prefixStatus(prefix, prefix.length());
+        if (prefixStatus != VALID) {
+            throw new IllegalArgumentException(error(prefixStatus).message());
         }
     }
 
     // validates the prefix without creating an intermediary object for it
-    private static String validatePrefixOnInput(final String input, final int separatorIndex) {
+    private static long prefixStatus(final CharSequence input, final int separatorIndex) {
 
         // empty prefix, no separator
         if (separatorIndex == -1) {
-            return VALID_REF;
+            return VALID;
         }
 
         if (separatorIndex > PREFIX_MAX_LENGTH) {
-            return "Prefix with illegal length, must not have more than " + PREFIX_MAX_LENGTH + " characters";
+            return status(ParseError.PREFIX_LENGTH, PREFIX_MAX_LENGTH);
         }
 
-        if (input.charAt(0) == SEPARATOR || input.charAt(separatorIndex - 1) == SEPARATOR) {
-            return "Prefix must not start or end with '" + SEPARATOR + "'";
+        if (input.charAt(0) == SEPARATOR) {
+            return status(ParseError.PREFIX_SEPARATOR_AT_EDGE, 0);
+        }
+        if (input.charAt(separatorIndex - 1) == SEPARATOR) {
+            return status(ParseError.PREFIX_SEPARATOR_AT_EDGE, separatorIndex - 1);
         }
 
         for (int i = 0; i < separatorIndex; i++) {
             char c = input.charAt(i);
             if (!(c >= 'a' && c <= 'z') && c != SEPARATOR) {
-                return "Illegal character in prefix, must be one of [a-z" + SEPARATOR + "]";
+                return status(ParseError.PREFIX_CHARACTER, i);
             }
         }
 
-        return VALID_REF;
+        return VALID;
     }
 
     public static UUID getUuidV7() {
         return generator.generate();
     }
+
+    // the generator behind getUuidV7 and generateInto, which doesn't store a node id
+    public static UuidV7Generator generator() {
+        return generator;
+    }
+
+    // the Unix epoch milliseconds in the upper 48 bits of a UUIDv7
+    public static long timestampMillis(final long msb) {
+        return msb >>> 16;
+    }
+
+    // the smallest and largest UUIDv7 with the given timestamp, in the numeric order of their unsigned bits.
+    // the suffix encodes the bits from the most significant to the least significant, so the textual
+    // representations of TypeIDs with the same prefix have the same order.
+    public static long minUuidV7Msb(final long timestampMillis) {
+        return checkedTimestamp(timestampMillis) << 16 | VERSION_7;
+    }
+
+    public static long maxUuidV7Msb(final long timestampMillis) {
+        return checkedTimestamp(timestampMillis) << 16 | VERSION_7 | 0x0FFFL;
+    }
+
+    public static long minUuidV7Lsb() {
+        return VARIANT_RFC;
+    }
+
+    public static long maxUuidV7Lsb() {
+        return VARIANT_RFC | 0x3FFF_FFFF_FFFF_FFFFL;
+    }
+
+    // converts the instant to a UUIDv7 timestamp, rounding down to whole milliseconds
+    public static long timestampMillis(final Instant instant) {
+        try {
+            return checkedTimestamp(instant.toEpochMilli());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(TIMESTAMP_OUT_OF_RANGE);
+        }
+    }
+
+    private static long checkedTimestamp(final long timestampMillis) {
+        if (timestampMillis < 0 || timestampMillis > MAX_TIMESTAMP) {
+            throw new IllegalArgumentException(TIMESTAMP_OUT_OF_RANGE);
+        }
+        return timestampMillis;
+    }
+
+    // generates n strictly increasing UUIDv7 at once, see UuidV7Generator.generateInto
+    public static void generateInto(final long[] msbs, final long[] lsbs, final int offset, final int n) {
+        generator.generateInto(msbs, lsbs, offset, n);
+    }
 }
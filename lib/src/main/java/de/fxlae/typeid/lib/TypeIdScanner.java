@@ -0,0 +1,393 @@
+package de.fxlae.typeid.lib;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.stream.LongStream;
+
+/**
+ * Finds all TypeIDs in text, e.g. in large log or NDJSON files.
+ * <p> A TypeID is recognized if it is a whole token, i.e. it is neither preceded nor followed by an ASCII
+ * letter, digit or underscore. Candidates are found by looking for tokens ending with a run of (exactly, if there
+ * is a prefix) 26 characters of the suffix alphabet. Prefix and suffix are validated in place and the TypeIDs are
+ * reported either as offsets or decoded into their parts. Neither reports allocates per TypeID: prefixes are
+ * resolved to canonical instances with a {@link PrefixRegistry}, which only creates a {@link String} when an
+ * unregistered prefix is found for the first time.
+ * <p> Files are scanned in memory-mapped chunks, optionally in parallel. Chunks are mapped with an overlap of
+ * the maximum TypeID length, so that TypeIDs spanning chunk boundaries are found exactly once.
+ * <p> Instances are immutable and thread-safe.
+ */
+public final class TypeIdScanner {
+
+    /**
+     * Receives the position of a TypeID in the scanned text.
+     */
+    @FunctionalInterface
+    public interface OffsetConsumer {
+
+        /**
+         * Called for each TypeID found.
+         *
+         * @param offset the index of the first character of the TypeID. For buffers, this is the absolute index
+         *               in the buffer, for files the position in the file.
+         * @param length the number of characters of the TypeID
+         */
+        void accept(long offset, int length);
+    }
+
+    static final int DEFAULT_CHUNK_SIZE = 1 << 26;
+
+    private static final int SUFFIX_LENGTH = 26;
+    private static final int PREFIX_MAX_LENGTH = 63;
+    private static final int MAX_LENGTH = PREFIX_MAX_LENGTH + 1 + SUFFIX_LENGTH;
+    private static final byte SEPARATOR = '_';
+
+    // character classes of ASCII characters, all others are delimiters
+    private static final int TOKEN = 1;
+    private static final int SUFFIX = 2;
+    private static final byte[] CLASSES = createClasses();
+
+    // if not null, prefixes are looked up here first, but never registered
+    private final PrefixRegistry knownPrefixes;
+    private final PrefixRegistry prefixes;
+    // if not null, only TypeIDs with this prefix are reported
+    private final byte[] requiredPrefix;
+    private final String requiredPrefixString;
+
+    private TypeIdScanner(final PrefixRegistry knownPrefixes, final PrefixRegistry prefixes, final String requiredPrefix) {
+        this.knownPrefixes = knownPrefixes;
+        this.prefixes = prefixes;
+        this.requiredPrefixString = requiredPrefix;
+        this.requiredPrefix = requiredPrefix == null ? null : requiredPrefix.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Creates a scanner for TypeIDs with any prefix. Prefixes of the {@link PrefixRegistry#shared() shared}
+     * {@link PrefixRegistry} are resolved to its instances, but as the scanned text might be untrusted, new
+     * prefixes are never registered there. They are registered in a registry of the scanner instead, with
+     * {@link PrefixRegistry#DEFAULT_CAPACITY}. Once it is full, a {@link String} is created for each TypeID with
+     * yet another prefix.
+     *
+     * @return the new {@link TypeIdScanner}
+     */
+    public static TypeIdScanner create() {
+        return new TypeIdScanner(PrefixRegistry.shared(), new PrefixRegistry(), null);
+    }
+
+    /**
+     * Creates a scanner for TypeIDs with any prefix. New prefixes are registered in the given
+     * {@link PrefixRegistry} until it is full.
+     *
+     * @param prefixes the {@link PrefixRegistry} to resolve prefixes with
+     * @return the new {@link TypeIdScanner}
+     * @throws NullPointerException if the registry is null
+     */
+    public static TypeIdScanner create(final PrefixRegistry prefixes) {
+        return new TypeIdScanner(null, Objects.requireNonNull(prefixes), null);
+    }
+
+    /**
+     * Creates a scanner for TypeIDs with the given prefix only.
+     *
+     * @param prefix the prefix, might be empty
+     * @return the new {@link TypeIdScanner}
+     * @throws NullPointerException     if the prefix is null
+     * @throws IllegalArgumentException if the prefix is invalid
+     */
+    public static TypeIdScanner forPrefix(final String prefix) {
+        return new TypeIdScanner(null, null, TypeIdLib.canonicalPrefix(prefix));
+    }
+
+    /**
+     * Scans the ASCII (or UTF-8) text between the buffer's position and limit and passes the parts of each
+     * TypeID found to the consumer. The position of the buffer is not changed.
+     *
+     * @param src      the text
+     * @param consumer the consumer
+     * @return the number of TypeIDs found
+     * @throws NullPointerException if the buffer and/or the consumer is null
+     */
+    public long scan(final ByteBuffer src, final TypeIdConsumer consumer) {
+        return scan(src, new Matches(Objects.requireNonNull(consumer), null, src.position()));
+    }
+
+    /**
+     * Scans the text between the buffer's position and limit and passes the offset and length of each TypeID
+     * found to the consumer. The position of the buffer is not changed.
+     *
+     * @param src      the text
+     * @param consumer the consumer
+     * @return the number of TypeIDs found
+     * @throws NullPointerException if the buffer and/or the consumer is null
+     */
+    public long scanOffsets(final ByteBuffer src, final OffsetConsumer consumer) {
+        return scan(src, new Matches(null, Objects.requireNonNull(consumer), src.position()));
+    }
+
+    /**
+     * Scans the text, e.g. a {@link java.nio.CharBuffer} or {@link String}, and passes the parts of each
+     * TypeID found to the consumer.
+     *
+     * @param src      the text
+     * @param consumer the consumer
+     * @return the number of TypeIDs found
+     * @throws NullPointerException if the text and/or the consumer is null
+     */
+    public long scan(final CharSequence src, final TypeIdConsumer consumer) {
+        return scan(src, new Matches(Objects.requireNonNull(consumer), null, 0));
+    }
+
+    /**
+     * Scans the text and passes the index and length of each TypeID found to the consumer.
+     *
+     * @param src      the text
+     * @param consumer the consumer
+     * @return the number of TypeIDs found
+     * @throws NullPointerException if the text and/or the consumer is null
+     */
+    public long scanOffsets(final CharSequence src, final OffsetConsumer consumer) {
+        return scan(src, new Matches(null, Objects.requireNonNull(consumer), 0));
+    }
+
+    /**
+     * Scans the whole ASCII (or UTF-8) file and passes the parts of each TypeID found to the consumer.
+     * <p> If scanned in parallel, the file is split into chunks that are scanned by the threads of the common
+     * {@link java.util.concurrent.ForkJoinPool}, so the consumer must be thread-safe and is not called in the order
+     * of the file.
+     *
+     * @param channel  the file
+     * @param parallel whether to scan the chunks in parallel
+     * @param consumer the consumer
+     * @return the number of TypeIDs found
+     * @throws NullPointerException if the channel and/or the consumer is null
+     * @throws IOException          if mapping the file fails
+     */
+    public long scan(final FileChannel channel, final boolean parallel, final TypeIdConsumer consumer) throws IOException {
+        Objects.requireNonNull(consumer);
+        return scan(channel, parallel, DEFAULT_CHUNK_SIZE, consumer, null);
+    }
+
+    /**
+     * Scans the whole ASCII (or UTF-8) file and passes the position and length of each TypeID found to the
+     * consumer. See {@link #scan(FileChannel, boolean, TypeIdConsumer)} for parallel scans.
+     *
+     * @param channel  the file
+     * @param parallel whether to scan the chunks in parallel
+     * @param consumer the consumer
+     * @return the number of TypeIDs found
+     * @throws NullPointerException if the channel and/or the consumer is null
+     * @throws IOException          if mapping the file fails
+     */
+    public long scanOffsets(final FileChannel channel, final boolean parallel, final OffsetConsumer consumer) throws IOException {
+        Objects.requireNonNull(consumer);
+        return scan(channel, parallel, DEFAULT_CHUNK_SIZE, null, consumer);
+    }
+
+    // the chunk size is configurable for tests
+    long scan(
+            final FileChannel channel,
+            final boolean parallel,
+            final int chunkSize,
+            final TypeIdConsumer ids,
+            final OffsetConsumer offsets) throws IOException {
+
+        final long size = channel.size();
+        final long chunks = (size + chunkSize - 1) / chunkSize;
+        final LongStream stream = parallel ? LongStream.range(0, chunks).parallel() : LongStream.range(0, chunks);
+        try {
+            return stream.map(chunk -> {
+                final long start = chunk * chunkSize;
+                final long end = Math.min(start + chunkSize, size);
+                // one character before the chunk tells whether a token continues into it, the overlap after
+                // the chunk completes the tokens starting in it
+                final long mapStart = Math.max(0, start - 1);
+                final long mapEnd = Math.min(end + MAX_LENGTH, size);
+                final MappedByteBuffer buffer;
+                try {
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                final Matches matches = new Matches(ids, offsets, mapStart);
+                return scan(buffer, (int) (start - mapStart), (int) (end - mapStart), mapEnd == size, matches);
+            }).sum();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long scan(final ByteBuffer src, final Matches matches) {
+        final ByteBuffer text = src.slice();
+        return scan(text, 0, text.limit(), true, matches);
+    }
+
+    // reports the TypeIDs of the tokens starting between from and to. the tokens may extend up to the limit of the
+    // buffer, which is the end of the text if complete is true.
+    private long scan(final ByteBuffer src, final int from, final int to, final boolean complete, final Matches matches) {
+        final int limit = src.limit();
+        long count = 0;
+        int i = from;
+        // skip the rest of a token that started before
+        if (i > 0 && classOf(src.get(i - 1)) != 0) {
+            while (i < limit && classOf(src.get(i)) != 0) {
+                i++;
+            }
+        }
+        while (i < to) {
+            int c = classOf(src.get(i));
+            if (c == 0) {
+                i++;
+                continue;
+            }
+            final int start = i;
+            int run = 0;
+            for (; c != 0; c = ++i < limit ? classOf(src.get(i)) : 0) {
+                run = (c & SUFFIX) != 0 ? run + 1 : 0;
+            }
+            final int length = i - start;
+            if (run >= SUFFIX_LENGTH && length <= MAX_LENGTH && (i < limit || complete)) {
+                src.get(start, matches.text, 0, length);
+                if (matches.match(start, length)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private long scan(final CharSequence src, final Matches matches) {
+        final int limit = src.length();
+        long count = 0;
+        int i = 0;
+        while (i < limit) {
+            int c = classOf(src.charAt(i));
+            if (c == 0) {
+                i++;
+                continue;
+            }
+            final int start = i;
+            int run = 0;
+            for (; c != 0; c = ++i < limit ? classOf(src.charAt(i)) : 0) {
+                run = (c & SUFFIX) != 0 ? run + 1 : 0;
+            }
+            final int length = i - start;
+            if (run >= SUFFIX_LENGTH && length <= MAX_LENGTH) {
+                // all characters of a token are ASCII
+                for (int j = 0; j < length; j++) {
+                    matches.text[j] = (byte) src.charAt(start + j);
+                }
+                if (matches.match(start, length)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int classOf(final int c) {
+        return c >= 0 && c < CLASSES.length ? CLASSES[c] : 0;
+    }
+
+    private static byte[] createClasses() {
+        final byte[] classes = new byte[128];
+        for (int c = 0; c < classes.length; c++) {
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == SEPARATOR) {
+                classes[c] = TOKEN;
+            }
+            if (TypeIdLib.isSuffixCharacter(c)) {
+                classes[c] |= SUFFIX;
+            }
+        }
+        return classes;
+    }
+
+    // the state of a single scan (or chunk): the candidate token is copied to text, which is validated,
+    // decoded and reported from there
+    private final class Matches {
+
+        private final TypeIdConsumer ids;
+        private final OffsetConsumer offsets;
+        private final long base;
+        private final byte[] text = new byte[MAX_LENGTH];
+        private final long[] uuid = new long[2];
+
+        Matches(final TypeIdConsumer ids, final OffsetConsumer offsets, final long base) {
+            this.ids = ids;
+            this.offsets = offsets;
+            this.base = base;
+        }
+
+        // validates the candidate of the given length in text and reports it, returns whether it is a TypeID
+        boolean match(final int start, final int length) {
+            final int separatorIndex = length - SUFFIX_LENGTH - 1;
+            if (separatorIndex == 0 || (separatorIndex > 0 && !isValidPrefix(separatorIndex))) {
+                return false;
+            }
+            if (!TypeIdLib.decodeSuffix(text, length - SUFFIX_LENGTH, uuid)) {
+                return false;
+            }
+            final int prefixLength = Math.max(separatorIndex, 0);
+            if (offsets != null) {
+                // prefixes only need to be resolved for filtering
+                if (requiredPrefix != null && !isRequiredPrefix(prefixLength)) {
+                    return false;
+                }
+                offsets.accept(base + start, length);
+                return true;
+            }
+            final String prefix = resolvePrefix(prefixLength);
+            if (prefix == null) {
+                return false;
+            }
+            ids.accept(prefix, uuid[0], uuid[1]);
+            return true;
+        }
+
+        private boolean isValidPrefix(final int separatorIndex) {
+            if (text[separatorIndex] != SEPARATOR || text[0] == SEPARATOR || text[separatorIndex - 1] == SEPARATOR) {
+                return false;
+            }
+            for (int i = 0; i < separatorIndex; i++) {
+                final byte b = text[i];
+                if (!(b >= 'a' && b <= 'z') && b != SEPARATOR) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isRequiredPrefix(final int length) {
+            if (length != requiredPrefix.length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (text[i] != requiredPrefix[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // returns the canonical prefix, or null if it's not the required one
+        private String resolvePrefix(final int length) {
+            if (requiredPrefix != null) {
+                return isRequiredPrefix(length) ? requiredPrefixString : null;
+            }
+            if (knownPrefixes != null) {
+                final int known = knownPrefixes.ordinal(text, 0, length);
+                if (known >= 0) {
+                    return knownPrefixes.prefix(known);
+                }
+            }
+            final int ordinal = prefixes.ordinal(text, 0, length);
+            if (ordinal >= 0) {
+                return prefixes.prefix(ordinal);
+            }
+            return prefixes.intern(new String(text, 0, length, StandardCharsets.US_ASCII));
+        }
+    }
+}
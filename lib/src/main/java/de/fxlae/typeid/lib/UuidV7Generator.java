@@ -0,0 +1,342 @@
+package de.fxlae.typeid.lib;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * A lock-free generator for UUIDv7 as per RFC 9562.
+ * <p> The 48 bit unix timestamp and the 12 bit {@code rand_a} field are kept together in a single
+ * {@code long}, which is advanced with compare-and-set. {@code rand_a} starts at a random value at the
+ * beginning of each millisecond and is advanced for each further UUID within the same millisecond, as
+ * selected by the {@link Monotonicity}. If it overflows, the timestamp is incremented. Therefore, all
+ * UUIDs of a generator are unique and strictly increasing, across all threads and also if the system
+ * clock moves backwards.
+ * <p> The 62 bit {@code rand_b} field is filled from a {@link SecureRandom}. Threads are spread over
+ * several buffered random sources, so that they hardly ever contend for the same one.
+ * <p> Optionally, the leftmost bits of {@code rand_b} can be reserved for the id of the node (or shard) that
+ * creates the UUIDs, see {@link #UuidV7Generator(Monotonicity, int, long)}. The node can then be read from any
+ * UUID with {@link #nodeId(long, int)}, and UUIDs of different nodes can't collide, as long as each node uses
+ * a single generator.
+ * <p> Instances are thread-safe. Contention is resolved with compare-and-set and striped try-locks
+ * instead of a shared monitor, so neither platform threads serialize on a single lock nor are virtual
+ * threads pinned to their carrier while waiting.
+ */
+public final class UuidV7Generator {
+
+    /**
+     * The methods of RFC 9562, section 6.2, to keep UUIDs monotonic within the same millisecond.
+     */
+    public enum Monotonicity {
+
+        /**
+         * Method 1, "Fixed Bit-Length Dedicated Counter": {@code rand_a} is used as a 12 bit counter.
+         * It is seeded with a random value, whose leftmost bit is zero, at the beginning of each
+         * millisecond and incremented by one for each further UUID. This guarantees at least 2048
+         * UUIDs per millisecond before the counter overflows into the timestamp.
+         */
+        COUNTER,
+
+        /**
+         * Method 2, "Monotonic Random": like {@link #COUNTER}, but {@code rand_a} is incremented by a
+         * random value between 1 and 4 for each further UUID, which makes the position of a UUID
+         * within its millisecond less predictable. At least 512 UUIDs fit into one millisecond before
+         * the counter overflows into the timestamp.
+         */
+        RANDOM_INCREMENT
+    }
+
+    private static final int RAND_A_BITS = 12;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final long VARIANT_RFC = 0x8000000000000000L;
+
+    private static final int RAND_B_BITS = 62;
+
+    /**
+     * The maximum number of bits of {@code rand_b} that can be reserved for the node id. At least 30 bits
+     * remain random.
+     */
+    public static final int MAX_NODE_BITS = 32;
+
+    private static final RandomStripe[] STRIPES = createStripes();
+
+    private final LongSupplier clock;
+    private final Monotonicity monotonicity;
+    private final int nodeBits;
+    private final long nodeId;
+    // the reserved bits of rand_b, and the node id in their position
+    private final long nodeMask;
+    private final long nodeField;
+
+    // (unix timestamp in millis << 12) | rand_a of the last issued UUID
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * Creates a new generator based on the system clock, using {@link Monotonicity#COUNTER}.
+     */
+    public UuidV7Generator() {
+        this(Monotonicity.COUNTER);
+    }
+
+    /**
+     * Creates a new generator based on the system clock.
+     *
+     * @param monotonicity the method to keep UUIDs monotonic within the same millisecond
+     * @throws NullPointerException if the monotonicity is null
+     */
+    public UuidV7Generator(final Monotonicity monotonicity) {
+        this(System::currentTimeMillis, monotonicity);
+    }
+
+    /**
+     * Creates a new generator based on the system clock, which reserves the leftmost bits of {@code rand_b}
+     * for the given node id. The remaining bits of {@code rand_b} stay random.
+     *
+     * @param monotonicity the method to keep UUIDs monotonic within the same millisecond
+     * @param nodeBits     the number of bits to reserve, between 1 and {@link #MAX_NODE_BITS}
+     * @param nodeId       the id of the node, between 0 and {@code 2^nodeBits - 1}
+     * @throws NullPointerException     if the monotonicity is null
+     * @throws IllegalArgumentException if the number of bits or the node id is out of range
+     */
+    public UuidV7Generator(final Monotonicity monotonicity, final int nodeBits, final long nodeId) {
+        this(System::currentTimeMillis, monotonicity, nodeBits, nodeId);
+        if (nodeBits < 1) {
+            throw new IllegalArgumentException("Number of node bits must be between 1 and " + MAX_NODE_BITS);
+        }
+    }
+
+    UuidV7Generator(final LongSupplier clock, final Monotonicity monotonicity) {
+        this(clock, monotonicity, 0, 0);
+    }
+
+    UuidV7Generator(final LongSupplier clock, final Monotonicity monotonicity, final int nodeBits, final long nodeId) {
+        if (nodeBits < 0 || nodeBits > MAX_NODE_BITS) {
+            throw new IllegalArgumentException("Number of node bits must be between 1 and " + MAX_NODE_BITS);
+        }
+        if (nodeId < 0 || nodeId >= 1L << nodeBits) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + ((1L << nodeBits) - 1));
+        }
+        this.clock = clock;
+        this.monotonicity = Objects.requireNonNull(monotonicity);
+        this.nodeBits = nodeBits;
+        this.nodeId = nodeId;
+        this.nodeMask = ((1L << nodeBits) - 1) << (RAND_B_BITS - nodeBits);
+        this.nodeField = nodeId << (RAND_B_BITS - nodeBits);
+    }
+
+    /**
+     * Returns the node id that is stored in the UUIDv7 with the given least significant bits, which has
+     * been created by a generator with the given number of node bits.
+     *
+     * @param lsb      the least significant bits of the UUID
+     * @param nodeBits the number of bits reserved for the node id, between 1 and {@link #MAX_NODE_BITS}
+     * @return the node id
+     * @throws IllegalArgumentException if the number of bits is out of range
+     */
+    public static long nodeId(final long lsb, final int nodeBits) {
+        if (nodeBits < 1 || nodeBits > MAX_NODE_BITS) {
+            throw new IllegalArgumentException("Number of node bits must be between 1 and " + MAX_NODE_BITS);
+        }
+        return (lsb & VARIANT_MASK) >>> (RAND_B_BITS - nodeBits);
+    }
+
+    /**
+     * Returns the method this generator uses to keep UUIDs monotonic within the same millisecond.
+     *
+     * @return the {@link Monotonicity}
+     */
+    public Monotonicity monotonicity() {
+        return monotonicity;
+    }
+
+    /**
+     * Returns the number of bits of {@code rand_b} that this generator reserves for the node id.
+     *
+     * @return the number of bits, {@code 0} if no node id is stored
+     */
+    public int nodeBits() {
+        return nodeBits;
+    }
+
+    /**
+     * Returns the node id that this generator stores in each UUID.
+     *
+     * @return the node id, {@code 0} if no node id is stored
+     */
+    public long nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Generates a new UUIDv7.
+     *
+     * @return the new {@link UUID}
+     */
+    public UUID generate() {
+        final long random = nextRandom();
+        final long next = advance(step(random), 0);
+        return new UUID(msb(next), lsb(random));
+    }
+
+    /**
+     * Generates {@code n} new UUIDv7 at once and stores their most and least significant bits in the arrays,
+     * starting at the given offset. The timestamp and counter are advanced only once for the whole batch,
+     * the UUIDs are strictly increasing.
+     * <p> Note: as only a limited number of UUIDs fit into one millisecond, large batches move the
+     * timestamp of this generator ahead of the clock, e.g. by at most about 500ms for a million UUIDs
+     * with {@link Monotonicity#COUNTER}.
+     *
+     * @param msbs   the destination for the most significant bits
+     * @param lsbs   the destination for the least significant bits
+     * @param offset the index of the first UUID in the arrays
+     * @param n      the number of UUIDs to generate
+     * @throws IndexOutOfBoundsException if the arrays are too small or the offset and/or n is negative
+     */
+    public void generateInto(final long[] msbs, final long[] lsbs, final int offset, final int n) {
+        Objects.checkFromIndexSize(offset, n, msbs.length);
+        Objects.checkFromIndexSize(offset, n, lsbs.length);
+        if (n == 0) {
+            return;
+        }
+
+        // the random values for rand_b also determine the increments, so they are needed upfront
+        nextRandoms(lsbs, offset, n);
+        long span = 0;
+        for (int i = offset + 1; i < offset + n; i++) {
+            span += step(lsbs[i]);
+        }
+
+        long next = advance(step(lsbs[offset]), span);
+        msbs[offset] = msb(next);
+        lsbs[offset] = lsb(lsbs[offset]);
+        for (int i = offset + 1; i < offset + n; i++) {
+            next += step(lsbs[i]);
+            msbs[i] = msb(next);
+            lsbs[i] = lsb(lsbs[i]);
+        }
+    }
+
+    // the increment of rand_a, taken from the two random bits that are replaced by the variant anyway
+    private long step(final long random) {
+        return monotonicity == Monotonicity.COUNTER ? 1 : 1 + (random >>> 62);
+    }
+
+    // advances the state by the step, plus the span reserved for further UUIDs, and returns the state
+    // for the first UUID
+    private long advance(final long step, final long span) {
+        final long now = clock.getAsLong() << RAND_A_BITS;
+        long start = -1;
+        while (true) {
+            final long current = state.get();
+            final long first;
+            if (now > current) {
+                if (start == -1) {
+                    // leave the upper half of rand_a as headroom for further UUIDs within the same millisecond
+                    start = now | (nextRandom() >>> (Long.SIZE - RAND_A_BITS + 1));
+                }
+                first = start;
+            } else {
+                first = current + step;
+            }
+            if (state.compareAndSet(current, first + span)) {
+                return first;
+            }
+        }
+    }
+
+    private static long msb(final long state) {
+        return ((state >>> RAND_A_BITS) << 16) | VERSION_7 | (state & 0xFFF);
+    }
+
+    private long lsb(final long random) {
+        return (random & VARIANT_MASK & ~nodeMask) | nodeField | VARIANT_RFC;
+    }
+
+    private static long nextRandom() {
+        final RandomStripe stripe = lockStripe();
+        try {
+            return stripe.nextLong();
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private static void nextRandoms(final long[] dst, final int offset, final int n) {
+        final RandomStripe stripe = lockStripe();
+        try {
+            for (int i = offset; i < offset + n; i++) {
+                dst[i] = stripe.nextLong();
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // returns a locked stripe, which must be unlocked by the caller
+    private static RandomStripe lockStripe() {
+        final int mask = STRIPES.length - 1;
+        final long id = Thread.currentThread().getId();
+        final int home = (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        // on contention, try the neighbouring stripe before waiting for the own one
+        for (int i = 0; i < 2; i++) {
+            final RandomStripe stripe = STRIPES[(home + i) & mask];
+            if (stripe.lock.tryLock()) {
+                return stripe;
+            }
+        }
+        final RandomStripe stripe = STRIPES[home];
+        stripe.lock.lock();
+        return stripe;
+    }
+
+    private static RandomStripe[] createStripes() {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final int count = Integer.highestOneBit(Math.max(1, processors * 4 - 1)) << 1;
+        final RandomStripe[] stripes = new RandomStripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new RandomStripe();
+        }
+        return stripes;
+    }
+
+    // a SecureRandom that hands out buffered random longs, so that the (comparably expensive)
+    // DRBG is invoked only once per batch of values. must only be used while holding the lock.
+    private static final class RandomStripe {
+
+        private static final int BUFFER_SIZE = 32;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final SecureRandom random;
+        private final byte[] bytes = new byte[BUFFER_SIZE * Long.BYTES];
+        private int position = BUFFER_SIZE;
+
+        RandomStripe() {
+            SecureRandom drbg;
+            try {
+                // unlike NativePRNG, DRBG instances don't share a global lock
+                drbg = SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                drbg = new SecureRandom();
+            }
+            this.random = drbg;
+        }
+
+        private long nextLong() {
+            if (position == BUFFER_SIZE) {
+                random.nextBytes(bytes);
+                position = 0;
+            }
+            final int offset = position++ * Long.BYTES;
+            long value = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                value = (value << 8) | (bytes[offset + i] & 0xFF);
+            }
+            return value;
+        }
+    }
+}
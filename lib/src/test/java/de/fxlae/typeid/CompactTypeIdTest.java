@@ -0,0 +1,75 @@
+package de.fxlae.typeid;
+
+import de.fxlae.typeid.lib.TypeIdLibTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompactTypeIdTest {
+
+    static final UUID SOME_UUID = UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057");
+
+    @ParameterizedTest
+    @ArgumentsSource(TypeIdLibTest.ValidTypeIdProvider.class)
+    void parseWithValidInputsShouldReturnCompactTypeId(String typeIdAsString, String expectedPrefix, UUID expectedUuid) {
+        var compactTypeId = CompactTypeId.parse(typeIdAsString);
+        assertThat(compactTypeId.prefix()).isEqualTo(expectedPrefix);
+        assertThat(compactTypeId.uuid()).isEqualTo(expectedUuid);
+        assertThat(compactTypeId.toString()).isEqualTo(typeIdAsString);
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(TypeIdLibTest.InvalidTypeIdProvider.class)
+    void parseWithInvalidInputShouldThrow(String typeIdAsString) {
+        assertThatThrownBy(() -> CompactTypeId.parse(typeIdAsString)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void parseShouldUseCanonicalPrefix() {
+        var typeId = TypeId.generate("parsed");
+        var compactTypeId = CompactTypeId.parse(new StringBuilder(typeId.toString()));
+        assertThat(compactTypeId.prefix()).isSameAs(typeId.prefix());
+        assertThat(compactTypeId.uuid()).isEqualTo(typeId.uuid());
+    }
+
+    @Test
+    void conversionFromAndToTypeIdShouldRoundTrip() {
+        var typeId = TypeId.of("prefix", SOME_UUID);
+        var compactTypeId = CompactTypeId.of(typeId);
+        assertThat(compactTypeId.msb()).isEqualTo(SOME_UUID.getMostSignificantBits());
+        assertThat(compactTypeId.lsb()).isEqualTo(SOME_UUID.getLeastSignificantBits());
+        assertThat(compactTypeId.prefix()).isSameAs(typeId.prefix());
+        assertThat(compactTypeId.toTypeId()).isEqualTo(typeId);
+        assertThat(compactTypeId.toString()).isEqualTo(typeId.toString());
+    }
+
+    @Test
+    void instancesWithSamePrefixShouldShareIt() {
+        var a = CompactTypeId.of(TypeId.generate("shared"));
+        var b = CompactTypeId.of(new String("shared"), SOME_UUID);
+        assertThat(a.prefix()).isSameAs(b.prefix());
+    }
+
+    @Test
+    void equalsShouldCompareAllComponents() {
+        assertThat(CompactTypeId.of("prefix", SOME_UUID)).isEqualTo(new CompactTypeId("prefix", SOME_UUID.getMostSignificantBits(), SOME_UUID.getLeastSignificantBits()));
+        assertThat(CompactTypeId.of("prefix", SOME_UUID)).isNotEqualTo(CompactTypeId.of("other", SOME_UUID));
+        assertThat(CompactTypeId.of("prefix", SOME_UUID)).isNotEqualTo(CompactTypeId.of("prefix", new UUID(0, 0)));
+    }
+
+    @Test
+    void invalidPrefixShouldFail() {
+        assertThatThrownBy(() -> new CompactTypeId("Prefix", 0, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CompactTypeId(null, 0, 0)).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void timestampMillisShouldReturnUpper48Bits() {
+        assertThat(CompactTypeId.of("prefix", SOME_UUID).timestampMillis()).isEqualTo(TypeId.of(SOME_UUID).timestampMillis());
+    }
+}
@@ -0,0 +1,81 @@
+package de.fxlae.typeid;
+
+import de.fxlae.typeid.lib.TypeIdLibTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LazyTypeIdTest {
+
+    static final UUID SOME_UUID = UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057");
+    static final String SOME_TYPE_ID = "prefix_01h455vb4pex5vsknk084sn02q";
+
+    @ParameterizedTest
+    @ArgumentsSource(TypeIdLibTest.ValidTypeIdProvider.class)
+    void parseWithValidInputsShouldDecodeOnDemand(String typeIdAsString, String expectedPrefix, UUID expectedUuid) {
+        var lazyTypeId = LazyTypeId.parse(typeIdAsString);
+        assertThat(lazyTypeId.toString()).isSameAs(typeIdAsString);
+        assertThat(lazyTypeId.prefix()).isEqualTo(expectedPrefix);
+        assertThat(lazyTypeId.uuid()).isEqualTo(expectedUuid);
+        assertThat(lazyTypeId.toTypeId()).isEqualTo(TypeId.parse(typeIdAsString));
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(TypeIdLibTest.InvalidTypeIdProvider.class)
+    void parseWithInvalidInputShouldFail(String typeIdAsString) {
+        assertThatThrownBy(() -> LazyTypeId.parse(typeIdAsString)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(LazyTypeId.parseToValidated(typeIdAsString).isValid()).isFalse();
+    }
+
+    @Test
+    void parseWithNullShouldFail() {
+        assertThatThrownBy(() -> LazyTypeId.parse(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void accessorsShouldReturnSameInstances() {
+        var lazyTypeId = LazyTypeId.parse(SOME_TYPE_ID);
+        assertThat(lazyTypeId.prefix()).isSameAs(lazyTypeId.prefix());
+        assertThat(lazyTypeId.uuid()).isSameAs(lazyTypeId.uuid());
+    }
+
+    @Test
+    void ofShouldTakeOverTypeId() {
+        var typeId = TypeId.of("prefix", SOME_UUID);
+        var lazyTypeId = LazyTypeId.of(typeId);
+        assertThat(lazyTypeId.toString()).isEqualTo(SOME_TYPE_ID);
+        assertThat(lazyTypeId.prefix()).isSameAs(typeId.prefix());
+        assertThat(lazyTypeId.uuid()).isSameAs(typeId.uuid());
+        assertThat(lazyTypeId).isEqualTo(LazyTypeId.parse(SOME_TYPE_ID));
+        assertThat(lazyTypeId.hashCode()).isEqualTo(LazyTypeId.parse(SOME_TYPE_ID).hashCode());
+    }
+
+    @Test
+    void toStringShouldBeMemoized() {
+        var lazyTypeId = LazyTypeId.of("prefix", SOME_UUID);
+        var text = lazyTypeId.toString();
+        assertThat(text).isEqualTo(SOME_TYPE_ID);
+        assertThat(lazyTypeId.toString()).isSameAs(text);
+        assertThat(lazyTypeId.toTypeId()).isEqualTo(TypeId.of("prefix", SOME_UUID));
+    }
+
+    @Test
+    void ofWithInvalidArgumentsShouldFail() {
+        assertThatThrownBy(() -> LazyTypeId.of("Prefix", SOME_UUID)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LazyTypeId.of(null)).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void equalsShouldCompareTypeIds() {
+        assertThat(LazyTypeId.of("prefix", SOME_UUID)).isEqualTo(LazyTypeId.parse(SOME_TYPE_ID));
+        assertThat(LazyTypeId.parse(SOME_TYPE_ID)).isEqualTo(LazyTypeId.of("prefix", SOME_UUID));
+        assertThat(LazyTypeId.parse(SOME_TYPE_ID)).isEqualTo(LazyTypeId.parse(new String(SOME_TYPE_ID)));
+        assertThat(LazyTypeId.parse(SOME_TYPE_ID)).isNotEqualTo(LazyTypeId.parse("other_01h455vb4pex5vsknk084sn02q"));
+        assertThat(LazyTypeId.parse(SOME_TYPE_ID)).isNotEqualTo(TypeId.parse(SOME_TYPE_ID));
+    }
+}
@@ -0,0 +1,93 @@
+package de.fxlae.typeid;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardRouterTest {
+
+    static final UUID SOME_UUID = UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057");
+    static final String SOME_TYPE_ID = "prefix_01h455vb4pex5vsknk084sn02q";
+
+    @Test
+    void shardsShouldBeStable() {
+        // the routing is part of the contract, these values must never change
+        assertThat(ShardRouter.jump(1000).shard(SOME_UUID.getLeastSignificantBits())).isEqualTo(475);
+        assertThat(ShardRouter.rendezvous(10, 20, 30, 40, 50).shard(SOME_UUID.getLeastSignificantBits())).isEqualTo(2);
+    }
+
+    @Test
+    void shardShouldOnlyDependOnRandomBits() {
+        var router = ShardRouter.jump(16);
+        var typeId = TypeId.of("prefix", SOME_UUID);
+        assertThat(router.shard(typeId)).isEqualTo(router.shard(SOME_UUID.getLeastSignificantBits()));
+        assertThat(router.shard(SOME_TYPE_ID)).isEqualTo(router.shard(typeId));
+        assertThat(router.shard(SOME_TYPE_ID.substring(7))).isEqualTo(router.shard(typeId));
+        // variant bits and the other prefix are ignored
+        assertThat(router.shard(SOME_UUID.getLeastSignificantBits() & 0x3FFF_FFFF_FFFF_FFFFL)).isEqualTo(router.shard(typeId));
+        assertThat(router.shard("other_01h455vb4pex5vsknk084sn02q")).isEqualTo(router.shard(typeId));
+    }
+
+    @Test
+    void shardsShouldBeDistributedEvenly() {
+        var random = new Random(42);
+        for (var router : new ShardRouter[]{ShardRouter.jump(10), ShardRouter.rendezvous(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)}) {
+            var counts = new int[10];
+            for (int i = 0; i < 100_000; i++) {
+                counts[router.shard(random.nextLong())]++;
+            }
+            for (int count : counts) {
+                assertThat(count).isBetween(9_000, 11_000);
+            }
+        }
+    }
+
+    @Test
+    void jumpShouldOnlyMoveKeysToTheNewShard() {
+        var random = new Random(42);
+        var before = ShardRouter.jump(9);
+        var after = ShardRouter.jump(10);
+        int moved = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long lsb = random.nextLong();
+            if (before.shard(lsb) != after.shard(lsb)) {
+                assertThat(after.shard(lsb)).isEqualTo(9);
+                moved++;
+            }
+        }
+        assertThat(moved).isBetween(800, 1200);
+    }
+
+    @Test
+    void rendezvousShouldOnlyMoveKeysOfTheRemovedNode() {
+        var random = new Random(42);
+        long[] nodes = {11, 22, 33, 44};
+        var before = ShardRouter.rendezvous(nodes);
+        var after = ShardRouter.rendezvous(44, 11, 33);
+        var reordered = ShardRouter.rendezvous(44, 33, 22, 11);
+        long[] afterNodes = {44, 11, 33};
+        long[] reorderedNodes = {44, 33, 22, 11};
+        for (int i = 0; i < 10_000; i++) {
+            long lsb = random.nextLong();
+            long node = nodes[before.shard(lsb)];
+            assertThat(reorderedNodes[reordered.shard(lsb)]).isEqualTo(node);
+            if (node != 22) {
+                assertThat(afterNodes[after.shard(lsb)]).isEqualTo(node);
+            }
+        }
+    }
+
+    @Test
+    void invalidArgumentsShouldFail() {
+        assertThatThrownBy(() -> ShardRouter.jump(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ShardRouter.rendezvous()).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ShardRouter.rendezvous(1, 2, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ShardRouter.jump(2).shard("prefix_01h455vb4pex5vsknk084sn02")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ShardRouter.jump(2).shard("_01h455vb4pex5vsknk084sn02q")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ShardRouter.jump(2).shard("prefix_01h455vb4pex5vsknk084sn02Q")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,206 @@
+package de.fxlae.typeid;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SortedTypeIdCodecTest {
+
+    static final UUID SOME_UUID = UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057");
+
+    @Test
+    void typeIdsShouldBeDecodedInOrder() {
+        var typeIds = TypeId.generate("prefix", 1000);
+        var encoded = SortedTypeIdCodec.encode("prefix", typeIds);
+
+        var decoder = SortedTypeIdCodec.decoder(encoded);
+        assertThat(decoder.prefix()).isEqualTo("prefix");
+        var actual = new ArrayList<TypeId>();
+        decoder.forEachRemaining(actual::add);
+        assertThat(actual).isEqualTo(typeIds);
+        assertThat(decoder.hasNext()).isFalse();
+        assertThatThrownBy(decoder::next).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void encodedFormShouldBeSmallerThanUuids() {
+        var typeIds = TypeId.generate("", 1000);
+        var encoded = SortedTypeIdCodec.encode("", typeIds);
+        assertThat(encoded.length).isLessThan(1000 * 11);
+    }
+
+    @Test
+    void largeAndEqualTimestampDeltasShouldBeDecoded() {
+        long[] timestamps = {0L, 0L, 1L, (1L << 48) - 2, (1L << 48) - 1, (1L << 48) - 1};
+        var msbs = new long[timestamps.length + 1];
+        var lsbs = new long[timestamps.length + 1];
+        for (int i = 0; i < timestamps.length; i++) {
+            msbs[i + 1] = timestamps[i] << 16 | 0x7000 | (i == 0 ? 0xFFF : i);
+            lsbs[i + 1] = i == 0 ? -1L >>> 2 | 1L << 63 : 0x8000_0000_0000_0000L | i;
+        }
+
+        var encoded = SortedTypeIdCodec.encode("a", msbs, lsbs, 1, timestamps.length);
+
+        var decoder = SortedTypeIdCodec.decoder(ByteBuffer.wrap(encoded));
+        var actualMsbs = new long[msbs.length];
+        var actualLsbs = new long[lsbs.length];
+        var index = new int[]{1};
+        while (decoder.next((prefix, msb, lsb) -> {
+            assertThat(prefix).isEqualTo("a");
+            actualMsbs[index[0]] = msb;
+            actualLsbs[index[0]++] = lsb;
+        })) {
+            // collected by the lambda
+        }
+        assertThat(index[0]).isEqualTo(msbs.length);
+        assertThat(actualMsbs).isEqualTo(msbs);
+        assertThat(actualLsbs).isEqualTo(lsbs);
+    }
+
+    @Test
+    void encoderShouldWriteSameFormAsArrayEncoding() throws IOException {
+        var typeIds = TypeId.generate("prefix", 1000);
+        var msbs = typeIds.stream().mapToLong(t -> t.uuid().getMostSignificantBits()).toArray();
+        var lsbs = typeIds.stream().mapToLong(t -> t.uuid().getLeastSignificantBits()).toArray();
+        var expected = SortedTypeIdCodec.encode("prefix", msbs, lsbs, 0, 1000);
+        assertThat((long) expected.length).isEqualTo(SortedTypeIdCodec.encodedLength("prefix", msbs, 0, 1000));
+
+        // single TypeIds, a column that fills up the pending block, whole blocks and a partial one
+        var out = new ByteArrayOutputStream();
+        try (var encoder = SortedTypeIdCodec.encoder(out, "prefix")) {
+            for (int i = 0; i < 100; i++) {
+                encoder.write(typeIds.get(i));
+            }
+            encoder.write(msbs, lsbs, 100, 50);
+            encoder.write(msbs, lsbs, 150, 850);
+        }
+        assertThat(out.toByteArray()).isEqualTo(expected);
+
+        var buffer = ByteBuffer.allocate(expected.length);
+        try (var encoder = SortedTypeIdCodec.encoder(buffer, "prefix")) {
+            encoder.write(msbs, lsbs, 0, 1000);
+        }
+        assertThat(buffer.array()).isEqualTo(expected);
+    }
+
+    @Test
+    void encoderShouldRejectInvalidInput() throws IOException {
+        var encoder = SortedTypeIdCodec.encoder(new ByteArrayOutputStream(), "ab");
+        encoder.write(TypeId.of("ab", SOME_UUID));
+        var earlier = UUID.fromString("01890a5d-ac95-774b-bcce-b302099a8057");
+        var msbs = new long[]{SOME_UUID.getMostSignificantBits(), earlier.getMostSignificantBits()};
+        var lsbs = new long[]{SOME_UUID.getLeastSignificantBits(), earlier.getLeastSignificantBits()};
+        assertThatThrownBy(() -> encoder.write(msbs, lsbs, 0, 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("sorted");
+        assertThatThrownBy(() -> encoder.write(TypeId.of("cd", SOME_UUID)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("prefix");
+        encoder.close();
+        assertThatThrownBy(() -> encoder.write(TypeId.of("ab", SOME_UUID))).isInstanceOf(IllegalStateException.class);
+
+        var full = SortedTypeIdCodec.encoder(ByteBuffer.allocate(10), "ab");
+        full.write(TypeId.of("ab", SOME_UUID));
+        assertThatThrownBy(full::close).isInstanceOf(BufferOverflowException.class);
+    }
+
+    @Test
+    void streamingEncoderAndDecoderShouldRoundTrip() throws IOException {
+        var typeIds = TypeId.generate("prefix", 5000);
+        var out = new ByteArrayOutputStream();
+        try (var encoder = SortedTypeIdCodec.encoder(out, "prefix")) {
+            for (TypeId typeId : typeIds) {
+                encoder.write(typeId);
+            }
+        }
+
+        // a stream that returns few bytes at a time, so that values span refills
+        var decoder = SortedTypeIdCodec.decoder(new ByteArrayInputStream(out.toByteArray()) {
+            @Override
+            public synchronized int read(final byte[] b, final int off, final int len) {
+                return super.read(b, off, Math.min(len, 7));
+            }
+        });
+        assertThat(decoder.prefix()).isEqualTo("prefix");
+        var actual = new ArrayList<TypeId>();
+        decoder.forEachRemaining(actual::add);
+        assertThat(actual).isEqualTo(typeIds);
+
+        var truncated = SortedTypeIdCodec.decoder(new ByteArrayInputStream(out.toByteArray(), 0, out.size() - 10));
+        assertThatThrownBy(() -> truncated.forEachRemaining(typeId -> {
+        })).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Truncated");
+
+        assertThatThrownBy(() -> SortedTypeIdCodec.decoder(new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("failed");
+            }
+        })).isInstanceOf(UncheckedIOException.class);
+    }
+
+    @Test
+    void emptySequenceShouldBeDecoded() {
+        var decoder = SortedTypeIdCodec.decoder(SortedTypeIdCodec.encode("", List.of()));
+        assertThat(decoder.prefix()).isEmpty();
+        assertThat(decoder.hasNext()).isFalse();
+    }
+
+    @Test
+    void decoderShouldNotChangeBufferPosition() {
+        var encoded = SortedTypeIdCodec.encode("ab", List.of(TypeId.of("ab", SOME_UUID)));
+        var buffer = ByteBuffer.allocate(encoded.length + 3);
+        buffer.position(3);
+        buffer.put(encoded);
+        buffer.position(3);
+
+        var decoder = SortedTypeIdCodec.decoder(buffer);
+        assertThat(decoder.next()).isEqualTo(TypeId.of("ab", SOME_UUID));
+        assertThat(buffer.position()).isEqualTo(3);
+    }
+
+    @Test
+    void unsortedOrNonV7TypeIdsShouldBeRejected() {
+        var earlier = TypeId.of("ab", UUID.fromString("01890a5d-ac95-774b-bcce-b302099a8057"));
+        assertThatThrownBy(() -> SortedTypeIdCodec.encode("ab", List.of(TypeId.of("ab", SOME_UUID), earlier)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("sorted");
+        var v4 = TypeId.of("ab", UUID.fromString("01890a5d-ac96-474b-bcce-b302099a8057"));
+        assertThatThrownBy(() -> SortedTypeIdCodec.encode("ab", List.of(v4)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("UUIDv7");
+        assertThatThrownBy(() -> SortedTypeIdCodec.encode("cd", List.of(TypeId.of("ab", SOME_UUID))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("prefix");
+        assertThatThrownBy(() -> SortedTypeIdCodec.encode(null, List.of(TypeId.of("ab", SOME_UUID))))
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void invalidInputShouldBeRejected() {
+        assertThatThrownBy(() -> SortedTypeIdCodec.decoder(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("magic");
+
+        var encoded = SortedTypeIdCodec.encode("ab", TypeId.generate("ab", 10));
+        var decoder = SortedTypeIdCodec.decoder(Arrays.copyOf(encoded, encoded.length - 10));
+        assertThatThrownBy(() -> {
+            while (decoder.hasNext()) {
+                decoder.next();
+            }
+        }).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Truncated");
+    }
+}
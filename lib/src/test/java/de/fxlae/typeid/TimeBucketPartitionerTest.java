@@ -0,0 +1,74 @@
+package de.fxlae.typeid;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimeBucketPartitionerTest {
+
+    static final UUID SOME_UUID = UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057");
+    static final String SOME_TYPE_ID = "prefix_01h455vb4pex5vsknk084sn02q";
+
+    @Test
+    void bucketShouldMatchTheTruncatedInstant() {
+        var hourly = TimeBucketPartitioner.of(Duration.ofHours(1));
+        var daily = TimeBucketPartitioner.of(Duration.ofDays(1));
+        var instant = Instant.ofEpochMilli(SOME_UUID.getMostSignificantBits() >>> 16);
+        var typeId = TypeId.of("prefix", SOME_UUID);
+
+        assertThat(hourly.bucket(typeId)).isEqualTo(instant.truncatedTo(ChronoUnit.HOURS).getEpochSecond() / 3600);
+        assertThat(daily.bucket(typeId)).isEqualTo(instant.truncatedTo(ChronoUnit.DAYS).getEpochSecond() / 86400);
+        assertThat(hourly.bucket(SOME_TYPE_ID)).isEqualTo(hourly.bucket(typeId));
+        assertThat(daily.bucket(SOME_TYPE_ID.substring(7))).isEqualTo(daily.bucket(typeId));
+        assertThat(hourly.bucketStartMillis(hourly.bucket(typeId))).isEqualTo(instant.truncatedTo(ChronoUnit.HOURS).toEpochMilli());
+    }
+
+    @Test
+    void bucketShouldBeRelativeToTheOrigin() {
+        var origin = Instant.parse("2023-06-30T00:00:00Z");
+        var partitioner = TimeBucketPartitioner.of(Duration.ofMinutes(10), origin);
+        assertThat(partitioner.originMillis()).isEqualTo(origin.toEpochMilli());
+        assertThat(partitioner.widthMillis()).isEqualTo(600_000);
+        // 03:34:18.518
+        assertThat(partitioner.bucket(SOME_UUID.getMostSignificantBits())).isEqualTo(21);
+        assertThat(partitioner.bucket(TypeId.min("", origin.minusMillis(1)))).isEqualTo(-1);
+        assertThat(partitioner.bucket(TypeId.max("", origin))).isEqualTo(0);
+    }
+
+    @Test
+    void bulkBucketsShouldMatchSingleBuckets() {
+        var random = new Random(42);
+        var msbs = new long[100];
+        for (int i = 0; i < msbs.length; i++) {
+            msbs[i] = (random.nextLong() & 0xFFFF_FFFF_FFFF_0FFFL) | 0x7000;
+        }
+        for (var width : new Duration[]{Duration.ofMillis(1024), Duration.ofHours(1), Duration.ofDays(7)}) {
+            var partitioner = TimeBucketPartitioner.of(width, Instant.ofEpochMilli(123_456_789));
+            var buckets = new long[102];
+            partitioner.buckets(msbs, 0, buckets, 2, msbs.length);
+            for (int i = 0; i < msbs.length; i++) {
+                var millis = (msbs[i] >>> 16) - 123_456_789;
+                assertThat(buckets[i + 2]).isEqualTo(Math.floorDiv(millis, width.toMillis()));
+            }
+        }
+    }
+
+    @Test
+    void invalidArgumentsShouldFail() {
+        var partitioner = TimeBucketPartitioner.of(Duration.ofHours(1));
+        assertThatThrownBy(() -> TimeBucketPartitioner.of(Duration.ofNanos(999_999))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TimeBucketPartitioner.of(Duration.ofHours(1), Instant.EPOCH.minusMillis(1))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> partitioner.bucket("prefix_01h455vb4pex5vsknk084sn02")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> partitioner.bucket("prefix-01h455vb4pex5vsknk084sn02q")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> partitioner.bucket("prefix_81h455vb4pex5vsknk084sn02q")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> partitioner.bucket("prefix_01h455vb4pex5vsknk084sn02u")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> partitioner.buckets(new long[2], 1, new long[2], 0, 2)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
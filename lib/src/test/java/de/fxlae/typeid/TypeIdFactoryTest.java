@@ -0,0 +1,94 @@
+package de.fxlae.typeid;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TypeIdFactoryTest {
+
+    static final UUID SOME_UUID = UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057");
+    static final String SOME_SUFFIX = "01h455vb4pex5vsknk084sn02q";
+
+    final TypeIdFactory orders = TypeId.factory("order");
+    final TypeIdFactory unprefixed = TypeId.factory("");
+
+    @Test
+    void factoryWithInvalidPrefixShouldFail() {
+        assertThatThrownBy(() -> TypeId.factory("Order")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TypeId.factory(null)).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void generateShouldReturnTypeIdWithPrefix() {
+        var typeId = orders.generate();
+        assertThat(typeId.prefix()).isEqualTo("order");
+        assertThat(typeId.uuid().version()).isEqualTo(7);
+        assertThat(unprefixed.generate().prefix()).isEqualTo("");
+    }
+
+    @Test
+    void generateStringShouldReturnParsableTypeId() {
+        var text = orders.generateString();
+        assertThat(text).startsWith("order_");
+        assertThat(TypeId.parse(text).prefix()).isEqualTo("order");
+        assertThat(unprefixed.generateString()).hasSize(26);
+    }
+
+    @Test
+    void ofAndToStringShouldMatchTypeId() {
+        assertThat(orders.of(SOME_UUID)).isEqualTo(TypeId.of("order", SOME_UUID));
+        assertThat(orders.toString(SOME_UUID)).isEqualTo("order_" + SOME_SUFFIX);
+        assertThat(unprefixed.toString(SOME_UUID)).isEqualTo(SOME_SUFFIX);
+    }
+
+    @Test
+    void encodeToShouldWriteIntoDestinations() {
+        var expected = "order_" + SOME_SUFFIX;
+
+        var chars = new char[40];
+        assertThat(orders.encodeTo(SOME_UUID, chars, 1)).isEqualTo(expected.length());
+        assertThat(new String(chars, 1, expected.length())).isEqualTo(expected);
+
+        var bytes = new byte[40];
+        assertThat(orders.encodeTo(SOME_UUID, bytes, 1)).isEqualTo(expected.length());
+        assertThat(new String(bytes, 1, expected.length(), StandardCharsets.US_ASCII)).isEqualTo(expected);
+
+        var direct = ByteBuffer.allocateDirect(40);
+        assertThat(orders.encodeTo(SOME_UUID, direct)).isEqualTo(expected.length());
+        assertThat(direct.position()).isEqualTo(expected.length());
+        assertThat(StandardCharsets.US_ASCII.decode(direct.flip()).toString()).isEqualTo(expected);
+    }
+
+    @Test
+    void parseShouldAcceptMatchingPrefix() {
+        var typeId = orders.parse("order_" + SOME_SUFFIX);
+        assertThat(typeId).isEqualTo(TypeId.of("order", SOME_UUID));
+        assertThat(orders.parse(new StringBuilder("order_" + SOME_SUFFIX))).isEqualTo(typeId);
+        assertThat(unprefixed.parse(SOME_SUFFIX)).isEqualTo(TypeId.of(SOME_UUID));
+    }
+
+    @Test
+    void parseShouldRejectOtherPrefixes() {
+        assertThat(orders.parseToOptional("user_" + SOME_SUFFIX)).isEmpty();
+        assertThat(orders.parseToOptional("orders_" + SOME_SUFFIX)).isEmpty();
+        assertThat(orders.parseToOptional("ord_" + SOME_SUFFIX)).isEmpty();
+        assertThat(orders.parseToOptional(SOME_SUFFIX)).isEmpty();
+        assertThat(unprefixed.parseToOptional("order_" + SOME_SUFFIX)).isEmpty();
+        assertThat(orders.parseToValidated("user_" + SOME_SUFFIX).message()).contains("'order'");
+        assertThatThrownBy(() -> orders.parse("user_" + SOME_SUFFIX)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void parseShouldRejectInvalidSuffixes() {
+        assertThat(orders.parseToOptional("order_" + SOME_SUFFIX + "0")).isEmpty();
+        assertThat(orders.parseToOptional("order_81h455vb4pex5vsknk084sn02q")).isEmpty();
+        assertThat(orders.parseToOptional("order_01h455lb4pex5vsknk084sn02q")).isEmpty();
+        assertThat(orders.parseToOptional("")).isEmpty();
+        assertThat(orders.parseToOptional(null)).isEmpty();
+    }
+}
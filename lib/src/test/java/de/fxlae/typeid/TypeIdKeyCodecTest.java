@@ -0,0 +1,122 @@
+package de.fxlae.typeid;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TypeIdKeyCodecTest {
+
+    static final UUID SOME_UUID = UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057");
+
+    @Test
+    void keyShouldContainPrefixTerminatorAndUuidBytes() {
+        var key = TypeIdKeyCodec.encode(TypeId.of("ab", SOME_UUID));
+        assertThat(key).hasSize(19);
+        assertThat(Arrays.copyOf(key, 3)).isEqualTo(new byte[]{'a', 'b', 0});
+        assertThat(ByteBuffer.wrap(key, 3, 16).getLong()).isEqualTo(SOME_UUID.getMostSignificantBits());
+        assertThat(TypeIdKeyCodec.encodedLength("")).isEqualTo(17);
+    }
+
+    @Test
+    void keysShouldSortLikeTextualRepresentation() {
+        var random = new Random(42);
+        var prefixes = List.of("", "a", "a_b", "a_a", "a__b", "ab", "b", "aa", "a_z", "z");
+        var typeIds = new ArrayList<TypeId>();
+        for (int i = 0; i < 2000; i++) {
+            var msb = i % 3 == 0 ? random.nextLong() : random.nextLong() & 0x0000FFFFFFFFFFFFL;
+            var lsb = i % 5 == 0 ? -1L : random.nextLong();
+            typeIds.add(TypeId.of(prefixes.get(random.nextInt(prefixes.size())), new UUID(msb, lsb)));
+        }
+        var byText = new ArrayList<>(typeIds);
+        byText.sort(Comparator.comparing(TypeId::toString));
+        var byKey = new ArrayList<>(typeIds);
+        byKey.sort((a, b) -> Arrays.compareUnsigned(TypeIdKeyCodec.encode(a), TypeIdKeyCodec.encode(b)));
+        assertThat(byKey).isEqualTo(byText);
+    }
+
+    @Test
+    void decodeShouldRestoreEncodedTypeIds() {
+        var typeId = TypeId.of("prefix", SOME_UUID);
+        var dst = new byte[40];
+        assertThat(TypeIdKeyCodec.encode("prefix", SOME_UUID.getMostSignificantBits(), SOME_UUID.getLeastSignificantBits(), dst, 5)).isEqualTo(23);
+        assertThat(TypeIdKeyCodec.decode(dst, 5, 23)).isEqualTo(typeId);
+        var parts = new ArrayList<Object>();
+        TypeIdKeyCodec.decode(dst, 5, 23, (prefix, msb, lsb) -> parts.addAll(List.of(prefix, msb, lsb)));
+        assertThat(parts).containsExactly("prefix", SOME_UUID.getMostSignificantBits(), SOME_UUID.getLeastSignificantBits());
+        assertThat(TypeIdKeyCodec.decode(TypeIdKeyCodec.encode(TypeId.of(SOME_UUID)), 0, 17)).isEqualTo(TypeId.of(SOME_UUID));
+    }
+
+    @Test
+    void byteBuffersShouldBeIndependentOfTheirByteOrder() {
+        var typeId = TypeId.of("prefix", SOME_UUID);
+        var expected = TypeIdKeyCodec.encode(typeId);
+        for (var buffer : new ByteBuffer[]{ByteBuffer.allocate(30), ByteBuffer.allocateDirect(30).order(ByteOrder.LITTLE_ENDIAN)}) {
+            buffer.position(2);
+            TypeIdKeyCodec.encode("prefix", SOME_UUID.getMostSignificantBits(), SOME_UUID.getLeastSignificantBits(), buffer);
+            assertThat(buffer.position()).isEqualTo(25);
+            var actual = new byte[23];
+            buffer.get(2, actual);
+            assertThat(actual).isEqualTo(expected);
+            buffer.position(2).limit(25);
+            assertThat(TypeIdKeyCodec.decode(buffer)).isEqualTo(typeId);
+            assertThat(buffer.position()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void directAndReadOnlyBuffersShouldBeDecodedInPlace() {
+        var registered = TypeId.generate("decoded");
+        var unregistered = TypeId.of("unregistered", SOME_UUID);
+        for (var typeId : List.of(registered, unregistered)) {
+            var key = TypeIdKeyCodec.encode(typeId);
+            var direct = ByteBuffer.allocateDirect(key.length).put(key).flip();
+            for (var buffer : List.of(direct, ByteBuffer.wrap(key).asReadOnlyBuffer())) {
+                assertThat(TypeIdKeyCodec.decode(buffer)).isEqualTo(typeId);
+                assertThat(buffer.position()).isZero();
+            }
+        }
+        var direct = ByteBuffer.allocateDirect(30).put(TypeIdKeyCodec.encode(registered)).flip();
+        assertThat(TypeIdKeyCodec.decode(direct).prefix()).isSameAs(registered.prefix());
+        assertThatThrownBy(() -> TypeIdKeyCodec.decode(direct.limit(direct.limit() - 1))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void boundsShouldEncloseAllKeysOfThePrefix() {
+        var lower = TypeIdKeyCodec.lowerBound("a");
+        var upper = TypeIdKeyCodec.upperBound("a");
+        var min = TypeIdKeyCodec.encode(TypeId.of("a", new UUID(0, 0)));
+        var max = TypeIdKeyCodec.encode(TypeId.of("a", new UUID(-1, -1)));
+        assertThat(Arrays.compareUnsigned(lower, min)).isNegative();
+        assertThat(Arrays.compareUnsigned(max, upper)).isNegative();
+        assertThat(Arrays.compareUnsigned(upper, TypeIdKeyCodec.encode(TypeId.of("a_a", new UUID(0, 0))))).isNegative();
+        assertThat(Arrays.compareUnsigned(upper, TypeIdKeyCodec.encode(TypeId.of("aa", new UUID(0, 0))))).isNegative();
+        var from = TypeIdKeyCodec.encode(TypeId.min("a", Instant.ofEpochMilli(1000)));
+        var to = TypeIdKeyCodec.encode(TypeId.max("a", Instant.ofEpochMilli(2000)));
+        assertThat(Arrays.compareUnsigned(from, to)).isNegative();
+    }
+
+    @Test
+    void invalidKeysShouldBeRejected() {
+        var key = TypeIdKeyCodec.encode(TypeId.of("prefix", SOME_UUID));
+        assertThatThrownBy(() -> TypeIdKeyCodec.decode(key, 0, key.length - 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TypeIdKeyCodec.decode(new byte[16], 0, 16)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TypeIdKeyCodec.decode(key, 0, key.length + 1)).isInstanceOf(IndexOutOfBoundsException.class);
+        key[0] = 'P';
+        assertThatThrownBy(() -> TypeIdKeyCodec.decode(key, 0, key.length)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TypeIdKeyCodec.encode("Prefix", 0, 0, new byte[30], 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TypeIdKeyCodec.encode("prefix", 0, 0, new byte[22], 0)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> TypeIdKeyCodec.encode("prefix", 0, 0, ByteBuffer.allocate(22))).isInstanceOf(BufferOverflowException.class);
+    }
+}
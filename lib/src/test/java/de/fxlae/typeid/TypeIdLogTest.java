@@ -0,0 +1,160 @@
+package de.fxlae.typeid;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TypeIdLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void appendedTypeIdsShouldBeReadBack() throws IOException {
+        var typeIds = List.of(TypeId.generate("user"), TypeId.generate(""), TypeId.generate("order_item"));
+        try (var log = TypeIdLog.open(dir.resolve("ids.log"))) {
+            for (int i = 0; i < typeIds.size(); i++) {
+                assertThat(log.append(typeIds.get(i))).isEqualTo(i);
+            }
+            assertThat(log.size()).isEqualTo(3);
+            for (int i = 0; i < typeIds.size(); i++) {
+                var typeId = typeIds.get(i);
+                assertThat(log.get(i)).isEqualTo(typeId);
+                assertThat(log.prefix(i)).isSameAs(log.prefix(i)).isEqualTo(typeId.prefix());
+                assertThat(log.msb(i)).isEqualTo(typeId.uuid().getMostSignificantBits());
+                assertThat(log.lsb(i)).isEqualTo(typeId.uuid().getLeastSignificantBits());
+                assertThat(log.timestampMillis(i)).isEqualTo(typeId.uuid().getMostSignificantBits() >>> 16);
+            }
+        }
+    }
+
+    @Test
+    void reopenedLogShouldContainAllRecordsAndPrefixes() throws IOException {
+        var path = dir.resolve("ids.log");
+        var expected = new ArrayList<TypeId>();
+        // tiny segments to cover the boundaries between mappings
+        try (var log = TypeIdLog.open(path, false, 4)) {
+            for (int i = 0; i < 100; i++) {
+                var typeId = TypeId.generate(i % 2 == 0 ? "even" : "odd");
+                expected.add(typeId);
+                log.append(typeId);
+            }
+        }
+        try (var log = TypeIdLog.open(path, false, 4)) {
+            var typeId = TypeId.generate("other");
+            expected.add(typeId);
+            assertThat(log.append(typeId)).isEqualTo(100);
+        }
+        try (var log = TypeIdLog.openReadOnly(path)) {
+            var actual = new ArrayList<TypeId>();
+            log.forEach((prefix, msb, lsb) -> actual.add(TypeId.of(prefix, new UUID(msb, lsb))));
+            assertThat(actual).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void timeRangesShouldBeFoundByBinarySearch() throws IOException {
+        var random = new Random(42);
+        var timestamps = new long[1000];
+        try (var log = TypeIdLog.open(dir.resolve("ids.log"), false, 6)) {
+            long timestamp = 1_700_000_000_000L;
+            for (int i = 0; i < timestamps.length; i++) {
+                timestamp += random.nextInt(3);
+                timestamps[i] = timestamp;
+                log.append(TypeId.of("prefix", uuidV7(timestamp, random)));
+            }
+            for (int t = 0; t < 50; t++) {
+                long from = timestamps[random.nextInt(timestamps.length)] - random.nextInt(2);
+                long to = from + random.nextInt(20);
+                var expected = new ArrayList<Long>();
+                for (long ts : timestamps) {
+                    if (ts >= from && ts < to) {
+                        expected.add(ts);
+                    }
+                }
+                var actual = new ArrayList<Long>();
+                log.forEachInTimeRange(from, to, (prefix, msb, lsb) -> actual.add(msb >>> 16));
+                assertThat(actual).isEqualTo(expected);
+            }
+            assertThat(log.lowerBound(Long.MIN_VALUE)).isEqualTo(0);
+            assertThat(log.lowerBound(Long.MAX_VALUE)).isEqualTo(1000);
+            assertThat(log.lowerBound(timestamps[999] + 1)).isEqualTo(1000);
+        }
+    }
+
+    @Test
+    void appendShouldRejectInvalidRecords() throws IOException {
+        try (var log = TypeIdLog.open(dir.resolve("ids.log"))) {
+            var uuidV4 = UUID.fromString("a1b2c3d4-e5f6-4a7b-8c9d-0e1f2a3b4c5d");
+            assertThatThrownBy(() -> log.append(TypeId.of("prefix", uuidV4)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("UUIDv7");
+            var random = new Random(42);
+            log.append(TypeId.of("prefix", uuidV7(1000, random)));
+            assertThatThrownBy(() -> log.append(TypeId.of("prefix", uuidV7(999, random))))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Timestamp");
+            var uuid = uuidV7(1000, random);
+            assertThatThrownBy(() -> log.append("Prefix", uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThat(log.size()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void appendShouldFailIfDictionaryIsFull() throws IOException {
+        try (var log = TypeIdLog.open(dir.resolve("ids.log"))) {
+            for (int i = 0; i < 63; i++) {
+                log.append(TypeId.generate(prefix(i)));
+            }
+            assertThatThrownBy(() -> log.append(TypeId.generate(prefix(63))))
+                    .isInstanceOf(IllegalStateException.class);
+            log.append(TypeId.generate(""));
+            log.append(TypeId.generate(prefix(62)));
+            assertThat(log.prefix(64)).isEqualTo(prefix(62));
+        }
+    }
+
+    @Test
+    void readOnlyAndClosedLogsShouldRejectAccess() throws IOException {
+        var path = dir.resolve("ids.log");
+        try (var log = TypeIdLog.open(path)) {
+            log.append(TypeId.generate("prefix"));
+        }
+        var log = TypeIdLog.openReadOnly(path);
+        assertThatThrownBy(() -> log.append(TypeId.generate("prefix"))).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> log.get(1)).isInstanceOf(IndexOutOfBoundsException.class);
+        log.close();
+        assertThatThrownBy(() -> log.get(0)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> log.lowerBound(0)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void openShouldRejectOtherFiles() throws IOException {
+        var path = Files.write(dir.resolve("other"), new byte[8192]);
+        assertThatThrownBy(() -> TypeIdLog.open(path)).isInstanceOf(IOException.class);
+        var empty = Files.createFile(dir.resolve("empty"));
+        assertThatThrownBy(() -> TypeIdLog.openReadOnly(empty)).isInstanceOf(IOException.class);
+    }
+
+    private static UUID uuidV7(final long timestamp, final Random random) {
+        return new UUID(
+                timestamp << 16 | 0x7000 | random.nextInt(0x1000),
+                random.nextLong() >>> 2 | 0x8000_0000_0000_0000L);
+    }
+
+    // distinct valid prefixes made of letters only
+    private static String prefix(final int i) {
+        return "p" + (char) ('a' + i / 26) + (char) ('a' + i % 26);
+    }
+}
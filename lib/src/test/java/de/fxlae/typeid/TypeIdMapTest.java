@@ -0,0 +1,65 @@
+package de.fxlae.typeid;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TypeIdMapTest {
+
+    static final UUID SOME_UUID = UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057");
+    static final String SOME_TYPE_ID = "prefix_01h455vb4pex5vsknk084sn02q";
+
+    @Test
+    void putShouldReturnPreviousValue() {
+        var map = new TypeIdMap<String>();
+        assertThat(map.put(TypeId.of("prefix", SOME_UUID), "a")).isNull();
+        assertThat(map.put(TypeId.of("prefix", SOME_UUID), "b")).isEqualTo("a");
+        assertThat(map.size()).isEqualTo(1);
+        assertThat(map.get(TypeId.of("prefix", SOME_UUID))).isEqualTo("b");
+    }
+
+    @Test
+    void getShouldFindValuesByPartsAndText() {
+        var map = new TypeIdMap<String>();
+        map.put(TypeId.of("prefix", SOME_UUID), "a");
+        assertThat(map.get("prefix", SOME_UUID.getMostSignificantBits(), SOME_UUID.getLeastSignificantBits())).isEqualTo("a");
+        assertThat(map.get(SOME_TYPE_ID)).isEqualTo("a");
+        assertThat(map.containsKey(SOME_TYPE_ID)).isTrue();
+        assertThat(map.get("other_01h455vb4pex5vsknk084sn02q")).isNull();
+        assertThat(map.get("invalid")).isNull();
+        assertThat(map.containsKey(TypeId.of("other", SOME_UUID))).isFalse();
+    }
+
+    @Test
+    void putWithNullValueShouldFail() {
+        var map = new TypeIdMap<String>();
+        assertThatThrownBy(() -> map.put(TypeId.of("prefix", SOME_UUID), null)).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void mapShouldBehaveLikeHashMap() {
+        var random = new Random(42);
+        var map = new TypeIdMap<Integer>();
+        var expected = new HashMap<TypeId, Integer>();
+        for (int i = 0; i < 100_000; i++) {
+            var typeId = TypeId.of("p" + (char) ('a' + random.nextInt(3)), new UUID(random.nextInt(100), random.nextInt(100)));
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(typeId)).isEqualTo(expected.remove(typeId));
+            } else {
+                assertThat(map.put(typeId, i)).isEqualTo(expected.put(typeId, i));
+            }
+            assertThat(map.size()).isEqualTo(expected.size());
+        }
+        var actual = new HashMap<TypeId, Integer>();
+        map.forEach(actual::put);
+        assertThat(actual).isEqualTo(expected);
+        for (var entry : expected.entrySet()) {
+            assertThat(map.get(entry.getKey().toString())).isEqualTo(entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package de.fxlae.typeid;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TypeIdSetTest {
+
+    static final UUID SOME_UUID = UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057");
+    static final String SOME_TYPE_ID = "prefix_01h455vb4pex5vsknk084sn02q";
+
+    @Test
+    void addShouldReportNewElements() {
+        var set = new TypeIdSet();
+        assertThat(set.isEmpty()).isTrue();
+        assertThat(set.add(TypeId.of("prefix", SOME_UUID))).isTrue();
+        assertThat(set.add(TypeId.of("prefix", SOME_UUID))).isFalse();
+        assertThat(set.add(TypeId.of("other", SOME_UUID))).isTrue();
+        assertThat(set.add("", SOME_UUID.getMostSignificantBits(), SOME_UUID.getLeastSignificantBits())).isTrue();
+        assertThat(set.size()).isEqualTo(3);
+    }
+
+    @Test
+    void containsShouldFindElementsByPartsAndText() {
+        var set = new TypeIdSet();
+        set.add(TypeId.of("prefix", SOME_UUID));
+        assertThat(set.contains(TypeId.of("prefix", SOME_UUID))).isTrue();
+        assertThat(set.contains("prefix", SOME_UUID.getMostSignificantBits(), SOME_UUID.getLeastSignificantBits())).isTrue();
+        assertThat(set.contains(SOME_TYPE_ID)).isTrue();
+        assertThat(set.contains(new StringBuilder(SOME_TYPE_ID))).isTrue();
+        assertThat(set.contains("other_01h455vb4pex5vsknk084sn02q")).isFalse();
+        assertThat(set.contains("01h455vb4pex5vsknk084sn02q")).isFalse();
+        assertThat(set.contains("prefix_01h455vb4pex5vsknk084sn02r")).isFalse();
+    }
+
+    @Test
+    void containsShouldRejectInvalidText() {
+        var set = new TypeIdSet();
+        set.add(TypeId.of("prefix", SOME_UUID));
+        assertThat(set.contains((CharSequence) null)).isFalse();
+        assertThat(set.contains("")).isFalse();
+        assertThat(set.contains("prefix-01h455vb4pex5vsknk084sn02q")).isFalse();
+        assertThat(set.contains("prefix_01h455vb4pex5vsknk084sn02Q")).isFalse();
+        assertThat(set.contains("_01h455vb4pex5vsknk084sn02q")).isFalse();
+    }
+
+    @Test
+    void addWithInvalidPrefixShouldFail() {
+        var set = new TypeIdSet();
+        assertThatThrownBy(() -> set.add("Prefix", 0, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> set.add(null, 0, 0)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> new TypeIdSet(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void setShouldBehaveLikeHashSet() {
+        var random = new Random(42);
+        var set = new TypeIdSet();
+        var expected = new HashSet<TypeId>();
+        for (int i = 0; i < 100_000; i++) {
+            // a small key space, so that there are many duplicates and removals of existing elements
+            var typeId = TypeId.of("p" + (char) ('a' + random.nextInt(3)), new UUID(random.nextInt(100), random.nextInt(100)));
+            if (random.nextInt(3) == 0) {
+                assertThat(set.remove(typeId)).isEqualTo(expected.remove(typeId));
+            } else {
+                assertThat(set.add(typeId)).isEqualTo(expected.add(typeId));
+            }
+            assertThat(set.size()).isEqualTo(expected.size());
+        }
+        var actual = new HashSet<TypeId>();
+        set.forEach(actual::add);
+        assertThat(actual).isEqualTo(expected);
+        for (var typeId : expected) {
+            assertThat(set.contains(typeId.toString())).isTrue();
+        }
+
+        set.clear();
+        assertThat(set.isEmpty()).isTrue();
+        assertThat(set.contains(expected.iterator().next())).isFalse();
+    }
+}
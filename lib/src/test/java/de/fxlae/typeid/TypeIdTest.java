@@ -1,11 +1,13 @@
 package de.fxlae.typeid;
 
 import de.fxlae.typeid.lib.TypeIdLibTest;
+import de.fxlae.typeid.lib.UuidV7Generator;
 import de.fxlae.typeid.util.Validated;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ArgumentsSource;
 
+import java.time.Instant;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.UUID;
@@ -42,6 +44,35 @@ class TypeIdTest {
                 () -> assertEquals('7', typeId.uuid().toString().charAt(14)));
     }
 
+    @Test
+    void generateBatchShouldReturnStrictlyIncreasingTypeIds() {
+        var typeIds = TypeId.generate(SOME_PREFIX, 1000);
+        assertThat(typeIds).hasSize(1000);
+        for (int i = 0; i < typeIds.size(); i++) {
+            var typeId = typeIds.get(i);
+            assertEquals(SOME_PREFIX, typeId.prefix());
+            assertEquals(7, typeId.uuid().version());
+            if (i > 0) {
+                assertTrue(typeIds.get(i - 1).toString().compareTo(typeId.toString()) < 0);
+            }
+        }
+        assertThat(TypeId.generate(SOME_PREFIX, 0)).isEmpty();
+    }
+
+    @Test
+    void generateBatchWithInvalidArgumentsShouldFail() {
+        assertAll(
+                () -> assertThrows(
+                        IllegalArgumentException.class,
+                        () -> TypeId.generate("not allowed", 10)),
+                () -> assertThrows(
+                        IllegalArgumentException.class,
+                        () -> TypeId.generate(SOME_PREFIX, -1)),
+                () -> assertThrows(
+                        NullPointerException.class,
+                        () -> TypeId.generate(null, 10)));
+    }
+
     @Test
     void generateWithInvalidPrefixShouldFail() {
         assertAll(
@@ -276,4 +307,47 @@ class TypeIdTest {
         assertEquals(typeIdA.hashCode(), typeIdB.hashCode());
     }
 
+    @Test
+    void timestampMillisShouldReturnUpper48Bits() {
+        assertEquals(0x01890a5dac96L, TypeId.of(SOME_UUID).timestampMillis());
+        assertEquals(Instant.parse("2023-06-30T03:34:18.518Z").toEpochMilli(), TypeId.of(SOME_UUID).timestampMillis());
+    }
+
+    @Test
+    void minAndMaxShouldEncloseAllTypeIdsOfTheMillisecond() {
+        var instant = Instant.ofEpochMilli(TypeId.of(SOME_UUID).timestampMillis()).plusNanos(999_999);
+        var min = TypeId.min(SOME_PREFIX, instant);
+        var max = TypeId.max(SOME_PREFIX, instant);
+        assertAll(
+                () -> assertEquals("01890a5d-ac96-7000-8000-000000000000", min.uuid().toString()),
+                () -> assertEquals("01890a5d-ac96-7fff-bfff-ffffffffffff", max.uuid().toString()),
+                () -> assertEquals(SOME_PREFIX, min.prefix()),
+                () -> assertEquals(min.timestampMillis(), max.timestampMillis()),
+                () -> assertTrue(min.toString().compareTo(SOME_TYPE_ID) < 0),
+                () -> assertTrue(max.toString().compareTo(SOME_TYPE_ID) > 0),
+                () -> assertTrue(max.toString().compareTo(TypeId.min(SOME_PREFIX, instant.plusMillis(1)).toString()) < 0));
+    }
+
+    @Test
+    void minAndMaxShouldRejectInstantsOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> TypeId.min(SOME_PREFIX, Instant.EPOCH.minusMillis(1)));
+        assertThrows(IllegalArgumentException.class, () -> TypeId.max(SOME_PREFIX, Instant.ofEpochMilli(1L << 48)));
+        assertThrows(IllegalArgumentException.class, () -> TypeId.max(SOME_PREFIX, Instant.MAX));
+        assertThrows(NullPointerException.class, () -> TypeId.min(SOME_PREFIX, null));
+        assertEquals("ffff-ffff-7fff", TypeId.max("", Instant.ofEpochMilli((1L << 48) - 1)).uuid().toString().substring(4, 18));
+    }
+
+    @Test
+    void generateWithGeneratorShouldStoreNodeId() {
+        var generator = new UuidV7Generator(UuidV7Generator.Monotonicity.COUNTER, 8, 42);
+        var typeId = TypeId.generate(SOME_PREFIX, generator);
+        var fromFactory = TypeId.factory(SOME_PREFIX, generator).generate();
+        assertAll(
+                () -> assertEquals(SOME_PREFIX, typeId.prefix()),
+                () -> assertEquals(7, typeId.uuid().version()),
+                () -> assertEquals(42, typeId.nodeId(8)),
+                () -> assertEquals(42, fromFactory.nodeId(8)),
+                () -> assertEquals(42, TypeId.parse(TypeId.factory(SOME_PREFIX, generator).generateString()).nodeId(8)),
+                () -> assertTrue(fromFactory.uuid().getMostSignificantBits() > typeId.uuid().getMostSignificantBits()));
+    }
 }
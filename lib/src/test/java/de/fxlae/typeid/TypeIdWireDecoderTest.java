@@ -0,0 +1,89 @@
+package de.fxlae.typeid;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TypeIdWireDecoderTest {
+
+    static final UUID SOME_UUID = UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057");
+
+    @Test
+    void truncatedStreamsShouldBeRejected() throws IOException {
+        var bytes = encode(TypeId.of("prefix", SOME_UUID));
+        for (int length = 0; length < bytes.length; length++) {
+            if (length == 5 || length == 12) {
+                // the stream ends after the header or after the definition of the prefix, both are record boundaries
+                assertThat(decoder(Arrays.copyOf(bytes, length)).read()).isNull();
+                continue;
+            }
+            var decoder = decoder(Arrays.copyOf(bytes, length));
+            assertThatThrownBy(decoder::read).isInstanceOf(EOFException.class);
+        }
+        assertThat(decoder(bytes).read()).isEqualTo(TypeId.of("prefix", SOME_UUID));
+    }
+
+    @Test
+    void invalidStreamsShouldBeRejected() throws IOException {
+        var bytes = encode(TypeId.of("prefix", SOME_UUID));
+
+        var wrongMagic = bytes.clone();
+        wrongMagic[0] = 'X';
+        assertThatThrownBy(() -> decoder(wrongMagic).read()).isInstanceOf(IOException.class);
+
+        var wrongVersion = bytes.clone();
+        wrongVersion[4] = 2;
+        assertThatThrownBy(() -> decoder(wrongVersion).read()).isInstanceOf(IOException.class);
+
+        var invalidPrefix = bytes.clone();
+        invalidPrefix[6] = 'P';
+        assertThatThrownBy(() -> decoder(invalidPrefix).read()).isInstanceOf(IOException.class);
+
+        var undefinedOrdinal = bytes.clone();
+        undefinedOrdinal[12] = 2 << 1;
+        assertThatThrownBy(() -> decoder(undefinedOrdinal).read()).isInstanceOf(IOException.class);
+
+        var duplicateDefinition = new byte[bytes.length + 7];
+        System.arraycopy(bytes, 0, duplicateDefinition, 0, 12);
+        System.arraycopy(bytes, 5, duplicateDefinition, 12, bytes.length - 5);
+        assertThatThrownBy(() -> decoder(duplicateDefinition).read()).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void bufferPositionShouldOnlyAdvancePastDecodedRecords() throws IOException {
+        var bytes = encode(TypeId.of("prefix", SOME_UUID), TypeId.of("prefix", SOME_UUID));
+        // a truncated third record, which must not be consumed
+        var src = ByteBuffer.allocateDirect(bytes.length + 10).put(bytes).put((byte) 0).flip();
+        var decoder = new TypeIdWireDecoder(src);
+
+        assertThat(decoder.read()).isEqualTo(TypeId.of("prefix", SOME_UUID));
+        assertThat(src.position()).isEqualTo(5 + 7 + 17);
+        assertThat(decoder.read()).isEqualTo(TypeId.of("prefix", SOME_UUID));
+        assertThat(src.position()).isEqualTo(bytes.length);
+        assertThatThrownBy(decoder::read).isInstanceOf(EOFException.class);
+        assertThat(src.position()).isEqualTo(bytes.length);
+    }
+
+    private static TypeIdWireDecoder decoder(final byte[] bytes) {
+        return new TypeIdWireDecoder(new ByteArrayInputStream(bytes));
+    }
+
+    private static byte[] encode(final TypeId... typeIds) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var encoder = new TypeIdWireEncoder(out)) {
+            for (TypeId typeId : typeIds) {
+                encoder.write(typeId);
+            }
+        }
+        return out.toByteArray();
+    }
+}
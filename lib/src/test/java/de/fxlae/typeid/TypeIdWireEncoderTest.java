@@ -0,0 +1,157 @@
+package de.fxlae.typeid;
+
+import de.fxlae.typeid.lib.PrefixRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TypeIdWireEncoderTest {
+
+    static final UUID SOME_UUID = UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057");
+
+    @Test
+    void streamShouldContainHeaderDefinitionsAndRecords() throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var encoder = new TypeIdWireEncoder(out)) {
+            encoder.write(TypeId.of("ab", SOME_UUID));
+            encoder.write(TypeId.of("ab", SOME_UUID));
+            encoder.write(TypeId.of(SOME_UUID));
+        }
+        var bytes = out.toByteArray();
+        // header (5), definition of "ab" (3), three records (17 each)
+        assertThat(bytes).hasSize(5 + 3 + 3 * 17);
+        assertThat(new String(bytes, 0, 4, "US-ASCII")).isEqualTo("TIDW");
+        assertThat(bytes[5]).isEqualTo((byte) (2 << 1 | 1));
+        assertThat(bytes[8]).isEqualTo((byte) (1 << 1));
+        assertThat(ByteBuffer.wrap(bytes, 9, 8).getLong()).isEqualTo(SOME_UUID.getMostSignificantBits());
+        assertThat(bytes[42]).isEqualTo((byte) 0);
+    }
+
+    @Test
+    void typeIdsShouldBeReadBackInAllForms() throws IOException {
+        var typeIds = new ArrayList<TypeId>();
+        for (int i = 0; i < 5000; i++) {
+            // more than 64 prefixes, so that the ordinals need two bytes
+            typeIds.add(TypeId.generate(i % 3 == 0 ? "" : "p" + (char) ('a' + i % 100 / 26) + (char) ('a' + i % 26)));
+        }
+        var out = new ByteArrayOutputStream();
+        try (var encoder = new TypeIdWireEncoder(out)) {
+            for (TypeId typeId : typeIds) {
+                encoder.write(typeId);
+            }
+        }
+
+        try (var decoder = new TypeIdWireDecoder(new ByteArrayInputStream(out.toByteArray()))) {
+            var actual = new ArrayList<TypeId>();
+            for (TypeId typeId = decoder.read(); typeId != null; typeId = decoder.read()) {
+                actual.add(typeId);
+            }
+            assertThat(actual).isEqualTo(typeIds);
+            assertThat(decoder.read()).isNull();
+        }
+
+        try (var decoder = new TypeIdWireDecoder(ByteBuffer.wrap(out.toByteArray()))) {
+            var actual = new ArrayList<TypeId>();
+            while (decoder.read((prefix, msb, lsb) -> actual.add(TypeId.of(prefix, new UUID(msb, lsb))))) {
+                // consumed by the lambda
+            }
+            assertThat(actual).isEqualTo(typeIds);
+        }
+
+        try (var decoder = new TypeIdWireDecoder(new ByteArrayInputStream(out.toByteArray()))) {
+            var ordinals = new int[6000];
+            var msbs = new long[6000];
+            var lsbs = new long[6000];
+            assertThat(decoder.read(ordinals, msbs, lsbs, 1000, 5000)).isEqualTo(5000);
+            assertThat(decoder.read(ordinals, msbs, lsbs, 0, 1000)).isEqualTo(0);
+            for (int i = 0; i < typeIds.size(); i++) {
+                var typeId = typeIds.get(i);
+                assertThat(decoder.prefixes().prefix(ordinals[1000 + i])).isEqualTo(typeId.prefix());
+                assertThat(msbs[1000 + i]).isEqualTo(typeId.uuid().getMostSignificantBits());
+                assertThat(lsbs[1000 + i]).isEqualTo(typeId.uuid().getLeastSignificantBits());
+            }
+        }
+    }
+
+    @Test
+    void columnsShouldBeWritten() throws IOException {
+        var registry = new PrefixRegistry();
+        var ordinals = new int[]{registry.register("user"), 0, registry.register("order")};
+        var msbs = new long[]{1, 2, 3};
+        var lsbs = new long[]{4, 5, 6};
+        var buffer = ByteBuffer.allocate(200);
+        try (var encoder = new TypeIdWireEncoder(buffer)) {
+            encoder.write(registry, ordinals, msbs, lsbs, 0, 3);
+            encoder.write("user", msbs, lsbs, 1, 2);
+        }
+        buffer.flip();
+        try (var decoder = new TypeIdWireDecoder(buffer)) {
+            var actual = new ArrayList<String>();
+            while (decoder.read((prefix, msb, lsb) -> actual.add(prefix + msb + lsb))) {
+                // consumed by the lambda
+            }
+            assertThat(actual).containsExactly("user14", "25", "order36", "user25", "user36");
+        }
+    }
+
+    @Test
+    void negotiatedPrefixesShouldNotBeSent() throws IOException {
+        var negotiated = List.of("user", "order");
+        var out = new ByteArrayOutputStream();
+        try (var encoder = new TypeIdWireEncoder(out, negotiated)) {
+            encoder.write(TypeId.of("order", SOME_UUID));
+            encoder.write(TypeId.of("other", SOME_UUID));
+        }
+        assertThat(out.size()).isEqualTo(5 + 17 + 6 + 17);
+        try (var decoder = new TypeIdWireDecoder(new ByteArrayInputStream(out.toByteArray()), negotiated)) {
+            assertThat(decoder.read()).isEqualTo(TypeId.of("order", SOME_UUID));
+            assertThat(decoder.read()).isEqualTo(TypeId.of("other", SOME_UUID));
+            assertThat(decoder.read()).isNull();
+        }
+    }
+
+    @Test
+    void invalidArgumentsShouldFail() throws IOException {
+        var encoder = new TypeIdWireEncoder(new ByteArrayOutputStream());
+        assertThatThrownBy(() -> encoder.write("Prefix", 0, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> encoder.write(null, 0, 0)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> encoder.write("p", new long[1], new long[2], 0, 2)).isInstanceOf(IndexOutOfBoundsException.class);
+        var full = new TypeIdWireEncoder(ByteBuffer.allocate(10));
+        full.write(TypeId.of(SOME_UUID));
+        assertThatThrownBy(full::flush).isInstanceOf(BufferOverflowException.class);
+    }
+
+    @Test
+    void failedPrefixDefinitionShouldBeRepeatedWhenContinuing() throws IOException {
+        var dst = ByteBuffer.allocate(20_000).limit(100);
+        var encoder = new TypeIdWireEncoder(dst);
+        // the header (5) and 481 records (17 each) leave 10 bytes in the internal buffer, which is too
+        // little for the definition of "abcdef" (7), so it has to be drained into the (too small) buffer first
+        for (int i = 0; i < 481; i++) {
+            encoder.write(TypeId.of(SOME_UUID));
+        }
+        assertThatThrownBy(() -> encoder.write(TypeId.of("abcdef", SOME_UUID))).isInstanceOf(BufferOverflowException.class);
+
+        dst.limit(dst.capacity());
+        encoder.write(TypeId.of("abcdef", SOME_UUID));
+        encoder.close();
+
+        try (var decoder = new TypeIdWireDecoder(dst.flip())) {
+            for (int i = 0; i < 481; i++) {
+                assertThat(decoder.read()).isEqualTo(TypeId.of(SOME_UUID));
+            }
+            assertThat(decoder.read()).isEqualTo(TypeId.of("abcdef", SOME_UUID));
+            assertThat(decoder.read()).isNull();
+        }
+    }
+}
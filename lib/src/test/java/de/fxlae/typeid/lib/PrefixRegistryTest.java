@@ -0,0 +1,103 @@
+package de.fxlae.typeid.lib;
+
+import de.fxlae.typeid.TypeId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PrefixRegistryTest {
+
+    static final UUID SOME_UUID = UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057");
+    static final String SOME_SUFFIX = "01h455vb4pex5vsknk084sn02q";
+
+    @Test
+    void emptyPrefixShouldAlwaysBeRegistered() {
+        var registry = new PrefixRegistry();
+        assertThat(registry.size()).isEqualTo(1);
+        assertThat(registry.ordinal("")).isEqualTo(0);
+        assertThat(registry.prefix(0)).isEqualTo("");
+    }
+
+    @Test
+    void internShouldReturnCanonicalInstance() {
+        var registry = new PrefixRegistry();
+        var canonical = registry.intern("user");
+        var copy = new String("user");
+        assertThat(registry.intern(copy)).isSameAs(canonical);
+        assertThat(registry.lookup("xuser_", 1, 5)).isSameAs(canonical);
+        assertThat(registry.ordinal(new StringBuilder("user"), 0, 4)).isEqualTo(1);
+        assertThat(registry.prefix(1)).isSameAs(canonical);
+    }
+
+    @Test
+    void registerShouldAssignSequentialOrdinals() {
+        var registry = new PrefixRegistry();
+        assertThat(registry.register("a")).isEqualTo(1);
+        assertThat(registry.register("b")).isEqualTo(2);
+        assertThat(registry.register("a")).isEqualTo(1);
+        assertThat(registry.size()).isEqualTo(3);
+    }
+
+    @Test
+    void lookupShouldReturnNullForUnknownPrefix() {
+        var registry = new PrefixRegistry();
+        registry.intern("user");
+        assertThat(registry.lookup("users", 0, 5)).isNull();
+        assertThat(registry.lookup("use", 0, 3)).isNull();
+        assertThat(registry.ordinal("order")).isEqualTo(-1);
+    }
+
+    @Test
+    void manyPrefixesShouldBeFound() {
+        var registry = new PrefixRegistry();
+        for (int i = 0; i < 500; i++) {
+            registry.register("p" + (char) ('a' + i % 26) + (char) ('a' + i / 26));
+        }
+        assertThat(registry.size()).isEqualTo(501);
+        for (int i = 0; i < registry.size(); i++) {
+            var prefix = registry.prefix(i);
+            assertThat(registry.ordinal(prefix)).isEqualTo(i);
+            assertThat(registry.ordinal("_" + prefix, 1, prefix.length() + 1)).isEqualTo(i);
+            assertThat(registry.ordinal(("_" + prefix).getBytes(StandardCharsets.US_ASCII), 1, prefix.length() + 1)).isEqualTo(i);
+            var buffer = ByteBuffer.allocateDirect(prefix.length() + 1).put(("_" + prefix).getBytes(StandardCharsets.US_ASCII));
+            assertThat(registry.ordinal(buffer, 1, prefix.length() + 1)).isEqualTo(i);
+        }
+        assertThat(registry.ordinal("pzz".getBytes(StandardCharsets.US_ASCII), 0, 3)).isEqualTo(-1);
+        assertThat(registry.ordinal(ByteBuffer.wrap("pzz".getBytes(StandardCharsets.US_ASCII)), 0, 3)).isEqualTo(-1);
+    }
+
+    @Test
+    void invalidPrefixesShouldBeRejected() {
+        var registry = new PrefixRegistry();
+        assertThatThrownBy(() -> registry.intern("Invalid")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> registry.register("_invalid")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> registry.intern(null)).isInstanceOf(NullPointerException.class);
+        assertThat(registry.size()).isEqualTo(1);
+    }
+
+    @Test
+    void fullRegistryShouldNotGrow() {
+        var registry = new PrefixRegistry(2);
+        registry.register("a");
+        var b = new String("b");
+        assertThat(registry.intern(b)).isSameAs(b);
+        assertThat(registry.ordinal("b")).isEqualTo(-1);
+        assertThatThrownBy(() -> registry.register("b")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> registry.intern("B")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void parsedTypeIdsShouldShareRegisteredPrefix() {
+        var canonical = PrefixRegistry.shared().intern("registered");
+        var parsed = TypeId.parse("registered_" + SOME_SUFFIX);
+        var constructed = TypeId.of(new String("registered"), SOME_UUID);
+        assertThat(parsed.prefix()).isSameAs(canonical);
+        assertThat(constructed.prefix()).isSameAs(canonical);
+        assertThat(parsed).isEqualTo(constructed);
+    }
+}
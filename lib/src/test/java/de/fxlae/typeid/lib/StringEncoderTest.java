@@ -0,0 +1,39 @@
+package de.fxlae.typeid.lib;
+
+import de.fxlae.typeid.SpecTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StringEncoderTest {
+
+    @ParameterizedTest
+    @ArgumentsSource(SpecTest.SpecValidProvider.class)
+    void encodersShouldAgreeOnSpecValid(String name, String expected, String prefix, UUID uuid) {
+        assertThat(StringEncoder.CHARS.encode(prefix, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits())).isEqualTo(expected);
+        assertThat(StringEncoder.PAIRS.encode(prefix, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits())).isEqualTo(expected);
+    }
+
+    @Test
+    void encodersShouldAgreeOnRandomUuids() {
+        var random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            var msb = random.nextLong();
+            var lsb = random.nextLong();
+            assertThat(StringEncoder.PAIRS.encode("prefix", msb, lsb)).isEqualTo(StringEncoder.CHARS.encode("prefix", msb, lsb));
+        }
+    }
+
+    @Test
+    void selectShouldFallBackToPairs() {
+        assertThat(StringEncoder.select("chars")).isSameAs(StringEncoder.CHARS);
+        assertThat(StringEncoder.select("pairs")).isSameAs(StringEncoder.PAIRS);
+        assertThat(StringEncoder.select("unknown")).isSameAs(StringEncoder.PAIRS);
+        assertThat(StringEncoder.select(null)).isSameAs(StringEncoder.PAIRS);
+    }
+}
@@ -0,0 +1,68 @@
+package de.fxlae.typeid.lib;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuffixDecoderTest {
+
+    // the preferred decoder is the vector decoder if it's on the classpath and jdk.incubator.vector is resolved
+    static final List<SuffixDecoder> DECODERS = List.of(SuffixDecoder.SCALAR, SuffixDecoder.PREFERRED);
+    static final List<String> PADDINGS = List.of("", "x", "prefix_", "some_longer_prefix_");
+
+    @Test
+    void decodeShouldMatchEncoding() {
+        var random = new Random(42);
+        var uuids = new ArrayList<>(List.of(
+                new UUID(0, 0),
+                new UUID(-1, -1),
+                new UUID(0x8000000000000000L, 1),
+                UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057")));
+        for (int i = 0; i < 1000; i++) {
+            uuids.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+
+        for (var decoder : DECODERS) {
+            for (var uuid : uuids) {
+                // the suffix at the start, in the middle and at the end of the input
+                for (var padding : PADDINGS) {
+                    var bytes = (padding + TypeIdLib.encode("", uuid) + padding).getBytes(StandardCharsets.US_ASCII);
+                    var out = new long[2];
+                    assertThat(decoder.decode(bytes, padding.length(), out)).isTrue();
+                    assertThat(new UUID(out[0], out[1])).isEqualTo(uuid);
+                }
+            }
+        }
+    }
+
+    @Test
+    void decodeShouldRejectIllegalCharacters() {
+        var suffix = "01h455vb4pex5vsknk084sn02q";
+        var illegal = "ilou_/:`{AZé\u0000".getBytes(StandardCharsets.ISO_8859_1);
+        for (var decoder : DECODERS) {
+            for (int i = 0; i < suffix.length(); i++) {
+                for (byte b : illegal) {
+                    for (var padding : PADDINGS) {
+                        var bytes = (padding + suffix + padding).getBytes(StandardCharsets.US_ASCII);
+                        bytes[padding.length() + i] = b;
+                        assertThat(decoder.decode(bytes, padding.length(), new long[2])).isFalse();
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void decodeShouldRejectIllegalLeftmostCharacter() {
+        for (var decoder : DECODERS) {
+            var bytes = "81h455vb4pex5vsknk084sn02q".getBytes(StandardCharsets.US_ASCII);
+            assertThat(decoder.decode(bytes, 0, new long[2])).isFalse();
+        }
+    }
+}
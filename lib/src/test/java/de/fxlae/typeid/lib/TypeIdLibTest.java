@@ -2,18 +2,30 @@ package de.fxlae.typeid.lib;
 
 
 import de.fxlae.typeid.SpecTest;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.ArgumentsProvider;
 import org.junit.jupiter.params.provider.ArgumentsSource;
 
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class TypeIdLibTest {
 
@@ -65,6 +77,190 @@ public class TypeIdLibTest {
         assertThat(result).hasValue(new Tuple<>(expectedPrefix, expectedUuid));
     }
 
+    @ParameterizedTest
+    @ArgumentsSource(SpecTest.SpecValidProvider.class)
+    void decodeTimestampMillisShouldMatchUpperBitsOfMsb(String name, String typeIdAsString, String prefix, UUID uuid) {
+        int start = typeIdAsString.length() - 26;
+        assertThat(TypeIdLib.decodeTimestampMillis(typeIdAsString, start))
+                .isEqualTo(TypeIdLib.timestampMillis(uuid.getMostSignificantBits()));
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(InvalidTypeIdProvider.class)
+    void parseWithErrorCodeShouldReportSameErrorAsMessage(String typeIdAsString) {
+        String message = TypeIdLib.parse(typeIdAsString, (prefix, uuid) -> null, Function.identity());
+        ParseError error = TypeIdLib.parseWithErrorCode(typeIdAsString, (prefix, uuid) -> null, (e, position) -> e);
+        assertNotNull(error);
+        assertEquals(message, error.message());
+    }
+
+    @Test
+    void parseWithErrorCodeShouldReportPosition() {
+        assertEquals(new Tuple<>(ParseError.NULL_OR_EMPTY, -1), parseWithErrorCode(""));
+        assertEquals(new Tuple<>(ParseError.EMPTY_PREFIX_WITH_SEPARATOR, 0), parseWithErrorCode("_01h455vb4pex5vsknk084sn02q"));
+        assertEquals(new Tuple<>(ParseError.SUFFIX_LENGTH, 11), parseWithErrorCode("someprefix_01h455vb4pex5vsknk084sn02"));
+        assertEquals(new Tuple<>(ParseError.SUFFIX_LEFTMOST_CHARACTER, 11), parseWithErrorCode("someprefix_81h455vb4pex5vsknk084sn02q"));
+        assertEquals(new Tuple<>(ParseError.SUFFIX_CHARACTER, 17), parseWithErrorCode("someprefix_01h455lb4pex5vsknk084sn02q"));
+        assertEquals(new Tuple<>(ParseError.PREFIX_LENGTH, 63), parseWithErrorCode("s".repeat(64) + "_01h455vb4pex5vsknk084sn02q"));
+        assertEquals(new Tuple<>(ParseError.PREFIX_SEPARATOR_AT_EDGE, 10), parseWithErrorCode("someprefix__01h455vb4pex5vsknk084sn02q"));
+        assertEquals(new Tuple<>(ParseError.PREFIX_CHARACTER, 1), parseWithErrorCode("sOmeprefix_01h455vb4pex5vsknk084sn02q"));
+    }
+
+    @Test
+    void parseWithErrorCodeShouldReturnValidTypeId() {
+        Tuple<String, UUID> result = TypeIdLib.parseWithErrorCode(
+                "prefix_01h455vb4pex5vsknk084sn02q",
+                Tuple::new,
+                (error, position) -> null);
+        assertEquals(new Tuple<>("prefix", TEST_UUID), result);
+    }
+
+    private static Tuple<ParseError, Integer> parseWithErrorCode(String text) {
+        return TypeIdLib.parseWithErrorCode(text, (prefix, uuid) -> null, Tuple::new);
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(ValidTypeIdProvider.class)
+    void parseValidFromCharSequenceAndBytes(String typeIdAsString, String expectedPrefix, UUID expectedUuid) {
+        var expected = new Tuple<>(expectedPrefix, expectedUuid);
+        for (var input : inputVariants(typeIdAsString)) {
+            Tuple<String, UUID> result = input.parse(Tuple::new, message -> null);
+            assertThat(result).isEqualTo(expected);
+        }
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(InvalidTypeIdProvider.class)
+    void parseInvalidFromCharSequenceAndBytes(String typeIdAsString) {
+        for (var input : inputVariants(typeIdAsString)) {
+            Optional<String> result = input.parse((prefix, uuid) -> Optional.empty(), Optional::of);
+            assertThat(result).isNotEmpty();
+        }
+    }
+
+    @Test
+    void parseFromByteBufferShouldNotChangePosition() {
+        var buffer = ByteBuffer.allocateDirect(64);
+        buffer.put("xxprefix_01h455vb4pex5vsknk084sn02q".getBytes(StandardCharsets.US_ASCII)).flip().position(2);
+        Tuple<String, UUID> result = TypeIdLib.parse(buffer, Tuple::new, message -> null);
+        assertThat(result).isEqualTo(new Tuple<>("prefix", TEST_UUID));
+        assertThat(buffer.position()).isEqualTo(2);
+    }
+
+    @Test
+    void decodeColumnsShouldFillColumnsAndFlagInvalidRows() {
+        var texts = List.of(
+                "user_01h455vb4pex5vsknk084sn02q",
+                "01h455vb4pex5vsknk084sn02q",
+                "not a typeid",
+                "order_01h455vb4pex5vsknk084sn02q",
+                "user_00000000000000000000000000",
+                "User_01h455vb4pex5vsknk084sn02q");
+        var registry = new PrefixRegistry();
+        var msbs = new long[texts.size()];
+        var lsbs = new long[texts.size()];
+        var ordinals = new int[texts.size()];
+        var invalidRows = new BitSet();
+        invalidRows.set(0);
+
+        var valid = TypeIdLib.decodeColumns(texts, registry, msbs, lsbs, ordinals, invalidRows);
+
+        assertThat(valid).isEqualTo(4);
+        assertThat(invalidRows.stream().toArray()).containsExactly(2, 5);
+        assertThat(ordinals).containsExactly(1, 0, -1, 2, 1, -1);
+        assertThat(registry.prefix(1)).isEqualTo("user");
+        assertThat(registry.prefix(2)).isEqualTo("order");
+        for (int row : new int[]{0, 1, 3}) {
+            assertThat(new UUID(msbs[row], lsbs[row])).isEqualTo(TEST_UUID);
+        }
+        assertThat(msbs[4]).isEqualTo(0L);
+        assertThat(lsbs[4]).isEqualTo(0L);
+    }
+
+    @Test
+    void decodeColumnsShouldFlagRowsWithPrefixesThatDontFitIntoRegistry() {
+        var texts = List.of(
+                "user_01h455vb4pex5vsknk084sn02q",
+                "order_01h455vb4pex5vsknk084sn02q",
+                "user_01h455vb4pex5vsknk084sn02q",
+                "01h455vb4pex5vsknk084sn02q");
+        // room for the empty prefix and one more
+        var registry = new PrefixRegistry(2);
+        var msbs = new long[texts.size()];
+        var lsbs = new long[texts.size()];
+        var ordinals = new int[texts.size()];
+        var invalidRows = new BitSet();
+
+        var valid = TypeIdLib.decodeColumns(texts, registry, msbs, lsbs, ordinals, invalidRows);
+
+        assertThat(valid).isEqualTo(3);
+        assertThat(invalidRows.stream().toArray()).containsExactly(1);
+        assertThat(ordinals).containsExactly(1, -1, 1, 0);
+        assertThat(registry.size()).isEqualTo(2);
+        assertThat(new UUID(msbs[3], lsbs[3])).isEqualTo(TEST_UUID);
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(SpecTest.SpecValidProvider.class)
+    void decodeColumnsValidAgainstSpec(String name, String typeIdAsString, String expectedPrefix, UUID expectedUuid) {
+        var registry = new PrefixRegistry();
+        var msbs = new long[1];
+        var lsbs = new long[1];
+        var ordinals = new int[1];
+        var invalidRows = new BitSet();
+        assertThat(TypeIdLib.decodeColumns(new String[]{typeIdAsString}, registry, msbs, lsbs, ordinals, invalidRows)).isEqualTo(1);
+        assertThat(registry.prefix(ordinals[0])).isEqualTo(expectedPrefix);
+        assertThat(new UUID(msbs[0], lsbs[0])).isEqualTo(expectedUuid);
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(SpecTest.SpecInvalidProvider.class)
+    void decodeColumnsInvalidAgainstSpec(String name, String typeIdAsString, String description) {
+        var invalidRows = new BitSet();
+        var ordinals = new int[1];
+        assertThat(TypeIdLib.decodeColumns(new String[]{typeIdAsString}, new PrefixRegistry(), new long[1], new long[1], ordinals, invalidRows)).isEqualTo(0);
+        assertThat(invalidRows.get(0)).isTrue();
+        assertThat(ordinals[0]).isEqualTo(-1);
+    }
+
+    // the same input, provided as String, CharSequence, UTF-8 byte array slice, heap ByteBuffer and direct ByteBuffer
+    static List<Parser> inputVariants(String input) {
+        var utf8 = input.getBytes(StandardCharsets.UTF_8);
+        var padded = new byte[utf8.length + 4];
+        System.arraycopy(utf8, 0, padded, 2, utf8.length);
+        var direct = ByteBuffer.allocateDirect(utf8.length).put(utf8).flip();
+        return List.of(
+                new Parser() {
+                    public <T> T parse(BiFunction<String, UUID, T> success, Function<String, T> error) {
+                        return TypeIdLib.parse(input, success, error);
+                    }
+                },
+                new Parser() {
+                    public <T> T parse(BiFunction<String, UUID, T> success, Function<String, T> error) {
+                        return TypeIdLib.parse(new StringBuilder(input), success, error);
+                    }
+                },
+                new Parser() {
+                    public <T> T parse(BiFunction<String, UUID, T> success, Function<String, T> error) {
+                        return TypeIdLib.parse(padded, 2, utf8.length, success, error);
+                    }
+                },
+                new Parser() {
+                    public <T> T parse(BiFunction<String, UUID, T> success, Function<String, T> error) {
+                        return TypeIdLib.parse(ByteBuffer.wrap(padded, 2, utf8.length), success, error);
+                    }
+                },
+                new Parser() {
+                    public <T> T parse(BiFunction<String, UUID, T> success, Function<String, T> error) {
+                        return TypeIdLib.parse(direct, success, error);
+                    }
+                });
+    }
+
+    interface Parser {
+        <T> T parse(BiFunction<String, UUID, T> successHandler, Function<String, T> errorHandler);
+    }
+
     public static class ValidTypeIdProvider implements ArgumentsProvider {
         @Override
         public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
@@ -94,6 +290,131 @@ public class TypeIdLibTest {
         assertEquals(expectedTypeIdAsString, typeIdAsString);
     }
 
+    @ParameterizedTest
+    @ArgumentsSource(SpecTest.SpecValidProvider.class)
+    void encodeToCharArrayValidAgainstSpec(String name, String expectedTypeIdAsString, String prefix, UUID uuid) {
+        var chars = new char[expectedTypeIdAsString.length() + 3];
+        var written = TypeIdLib.encode(prefix, uuid, chars, 2);
+        assertEquals(expectedTypeIdAsString.length(), written);
+        assertEquals(expectedTypeIdAsString, new String(chars, 2, written));
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(SpecTest.SpecValidProvider.class)
+    void encodeToByteArrayValidAgainstSpec(String name, String expectedTypeIdAsString, String prefix, UUID uuid) {
+        var bytes = new byte[expectedTypeIdAsString.length() + 3];
+        var written = TypeIdLib.encode(prefix, uuid, bytes, 2);
+        assertEquals(expectedTypeIdAsString.length(), written);
+        assertEquals(expectedTypeIdAsString, new String(bytes, 2, written, StandardCharsets.US_ASCII));
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(SpecTest.SpecValidProvider.class)
+    void encodeToByteBufferValidAgainstSpec(String name, String expectedTypeIdAsString, String prefix, UUID uuid) {
+        for (var buffer : List.of(ByteBuffer.allocate(100), ByteBuffer.allocateDirect(100))) {
+            buffer.position(2);
+            var written = TypeIdLib.encode(prefix, uuid, buffer);
+            assertEquals(expectedTypeIdAsString.length(), written);
+            assertEquals(2 + written, buffer.position());
+            buffer.flip().position(2);
+            assertEquals(expectedTypeIdAsString, StandardCharsets.US_ASCII.decode(buffer).toString());
+        }
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(SpecTest.SpecValidProvider.class)
+    void encodeToAppendableValidAgainstSpec(String name, String expectedTypeIdAsString, String prefix, UUID uuid) throws IOException {
+        var sb = new StringBuilder("x");
+        var written = TypeIdLib.encode(prefix, uuid, sb);
+        assertEquals(expectedTypeIdAsString.length(), written);
+        assertEquals("x" + expectedTypeIdAsString, sb.toString());
+    }
+
+    @Test
+    void encodeWithInsufficientSpaceShouldFail() {
+        assertAll(
+                () -> assertThrows(
+                        IndexOutOfBoundsException.class,
+                        () -> TypeIdLib.encode("prefix", TEST_UUID, new char[32], 0)),
+                () -> assertThrows(
+                        IndexOutOfBoundsException.class,
+                        () -> TypeIdLib.encode("", TEST_UUID, new byte[26], 1)),
+                () -> assertThrows(
+                        BufferOverflowException.class,
+                        () -> TypeIdLib.encode("", TEST_UUID, ByteBuffer.allocate(25))));
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(SpecTest.SpecValidProvider.class)
+    void uuidTextShouldBeTranscodedToTypeIdTextAndBack(String name, String typeIdAsString, String prefix, UUID uuid) {
+        var uuidAsString = uuid.toString();
+
+        var chars = new char[typeIdAsString.length() + 2];
+        assertEquals(typeIdAsString.length(), TypeIdLib.uuidToTypeId(prefix, uuidAsString.toUpperCase().toCharArray(), 0, chars, 2));
+        assertEquals(typeIdAsString, new String(chars, 2, typeIdAsString.length()));
+        var uuidChars = new char[37];
+        assertEquals(36, TypeIdLib.typeIdToUuid(chars, 2, typeIdAsString.length(), uuidChars, 1));
+        assertEquals(uuidAsString, new String(uuidChars, 1, 36));
+
+        var bytes = new byte[typeIdAsString.length() + 2];
+        var uuidBytes = ("x" + uuidAsString).getBytes(StandardCharsets.US_ASCII);
+        assertEquals(typeIdAsString.length(), TypeIdLib.uuidToTypeId(prefix, uuidBytes, 1, bytes, 2));
+        assertEquals(typeIdAsString, new String(bytes, 2, typeIdAsString.length(), StandardCharsets.US_ASCII));
+        var uuidBytesBack = new byte[36];
+        assertEquals(36, TypeIdLib.typeIdToUuid(bytes, 2, typeIdAsString.length(), uuidBytesBack, 0));
+        assertEquals(uuidAsString, new String(uuidBytesBack, StandardCharsets.US_ASCII));
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(SpecTest.SpecInvalidProvider.class)
+    void invalidTypeIdTextShouldNotBeTranscoded(String name, String typeIdAsString, String description) {
+        var chars = typeIdAsString.toCharArray();
+        assertEquals(-1, TypeIdLib.typeIdToUuid(chars, 0, chars.length, new char[36], 0));
+        // non-ASCII characters are not representable as bytes and replaced by '?', which is invalid as well
+        var bytes = typeIdAsString.getBytes(StandardCharsets.US_ASCII);
+        assertEquals(-1, TypeIdLib.typeIdToUuid(bytes, 0, bytes.length, new byte[36], 0));
+    }
+
+    @Test
+    void invalidUuidTextShouldNotBeTranscoded() {
+        for (var uuidAsString : List.of(
+                "01890a5d-ac96-774b-bcce-b302099a805g",
+                "01890a5d_ac96-774b-bcce-b302099a8057",
+                "01890a5dac96-774b-bcce-b302099a80570",
+                "01890a5d-ac96-774b-bcce-b302099a805\u00e4")) {
+            assertEquals(-1, TypeIdLib.uuidToTypeId("prefix", uuidAsString.toCharArray(), 0, new char[33], 0));
+            assertEquals(-1, TypeIdLib.uuidToTypeId("prefix", uuidAsString.getBytes(StandardCharsets.ISO_8859_1), 0, new byte[33], 0));
+        }
+        var uuidChars = TEST_UUID.toString().toCharArray();
+        assertAll(
+                () -> assertThrows(
+                        IllegalArgumentException.class,
+                        () -> TypeIdLib.uuidToTypeId("Prefix", uuidChars, 0, new char[33], 0)),
+                () -> assertThrows(
+                        IndexOutOfBoundsException.class,
+                        () -> TypeIdLib.uuidToTypeId("prefix", uuidChars, 1, new char[33], 0)),
+                () -> assertThrows(
+                        IndexOutOfBoundsException.class,
+                        () -> TypeIdLib.uuidToTypeId("prefix", uuidChars, 0, new char[32], 0)));
+    }
+
+    @Test
+    void encodeWithInvalidPrefixShouldFail() {
+        assertAll(
+                () -> assertThrows(
+                        IllegalArgumentException.class,
+                        () -> TypeIdLib.encode("pr\u00e9fix", TEST_UUID, new char[40], 0)),
+                () -> assertThrows(
+                        IllegalArgumentException.class,
+                        () -> TypeIdLib.encode("pr\u00e9fix", TEST_UUID, new byte[40], 0)),
+                () -> assertThrows(
+                        IllegalArgumentException.class,
+                        () -> TypeIdLib.encode("Prefix", TEST_UUID, ByteBuffer.allocateDirect(40))),
+                () -> assertThrows(
+                        IllegalArgumentException.class,
+                        () -> TypeIdLib.encode("_prefix", TEST_UUID, new StringBuilder())));
+    }
+
     @ParameterizedTest
     @ArgumentsSource(SpecTest.SpecInvalidProvider.class)
     void parseInvalidAgainstSpec(String name, String typeIdAsString, String description) {
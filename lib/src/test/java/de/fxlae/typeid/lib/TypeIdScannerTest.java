@@ -0,0 +1,162 @@
+package de.fxlae.typeid.lib;
+
+import de.fxlae.typeid.TypeId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TypeIdScannerTest {
+
+    static final UUID SOME_UUID = UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057");
+    static final String SOME_SUFFIX = "01h455vb4pex5vsknk084sn02q";
+
+    static final String TEXT = String.join("\n",
+            "{\"id\":\"order_" + SOME_SUFFIX + "\",\"user\":\"user_account_" + SOME_SUFFIX + "\"}",
+            SOME_SUFFIX + " at start, " + SOME_SUFFIX + ".",
+            // not whole tokens, upper case, leftmost character above 7 and invalid prefixes
+            "x" + SOME_SUFFIX + " " + SOME_SUFFIX + "0 1" + SOME_SUFFIX + " " + SOME_SUFFIX.toUpperCase(),
+            "81h455vb4pex5vsknk084sn02q _order_" + SOME_SUFFIX + " order__" + SOME_SUFFIX + " Order_" + SOME_SUFFIX,
+            "äorder_" + SOME_SUFFIX);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void typeIdsShouldBeFoundInText() {
+        var found = new ArrayList<TypeId>();
+        var count = TypeIdScanner.create().scan(TEXT, (prefix, msb, lsb) -> found.add(new TypeId(prefix, new UUID(msb, lsb))));
+
+        assertThat(count).isEqualTo(5);
+        assertThat(found).isEqualTo(List.of(
+                TypeId.of("order", SOME_UUID),
+                TypeId.of("user_account", SOME_UUID),
+                TypeId.of(SOME_UUID),
+                TypeId.of(SOME_UUID),
+                TypeId.of("order", SOME_UUID)));
+    }
+
+    @Test
+    void offsetsShouldBeReportedForAllSources() {
+        var expected = List.of(
+                TEXT.indexOf("order_"),
+                TEXT.indexOf("user_account_"),
+                TEXT.indexOf('\n') + 1,
+                TEXT.indexOf(", ") + 2,
+                TEXT.lastIndexOf("order_"));
+
+        var offsets = new ArrayList<Long>();
+        var lengths = new ArrayList<Integer>();
+        TypeIdScanner.create().scanOffsets(CharBuffer.wrap(TEXT), (offset, length) -> {
+            offsets.add(offset);
+            lengths.add(length);
+        });
+        assertThat(offsets).isEqualTo(expected.stream().map(Long::valueOf).toList());
+        assertThat(lengths).isEqualTo(List.of(32, 39, 26, 26, 32));
+
+        // UTF-8 bytes shift the offset after the non-ASCII character
+        var bytes = TEXT.getBytes(StandardCharsets.UTF_8);
+        var buffer = ByteBuffer.allocateDirect(bytes.length + 3);
+        buffer.position(3);
+        buffer.put(bytes);
+        buffer.position(3);
+        var byteOffsets = new ArrayList<Long>();
+        TypeIdScanner.create().scanOffsets(buffer, (offset, length) -> byteOffsets.add(offset - 3));
+        assertThat(byteOffsets.subList(0, 4)).isEqualTo(offsets.subList(0, 4));
+        assertThat(byteOffsets.get(4)).isEqualTo(offsets.get(4) + 1);
+        assertThat(buffer.position()).isEqualTo(3);
+    }
+
+    @Test
+    void scannerForPrefixShouldOnlyReportThatPrefix() {
+        var found = new ArrayList<String>();
+        TypeIdScanner.forPrefix("order").scan(ByteBuffer.wrap(TEXT.getBytes(StandardCharsets.UTF_8)), (prefix, msb, lsb) -> found.add(prefix));
+        assertThat(found).isEqualTo(List.of("order", "order"));
+
+        assertThat(TypeIdScanner.forPrefix("").scanOffsets(TEXT, (offset, length) -> {})).isEqualTo(2);
+        assertThatThrownBy(() -> TypeIdScanner.forPrefix("Order")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void newPrefixesShouldBeRegistered() {
+        var registry = new PrefixRegistry();
+        var found = new ArrayList<String>();
+        TypeIdScanner.create(registry).scan(TEXT, (prefix, msb, lsb) -> found.add(prefix));
+
+        assertThat(registry.size()).isEqualTo(3);
+        assertThat(found.get(0)).isSameAs(registry.prefix(1));
+        assertThat(found.get(4)).isSameAs(registry.prefix(1));
+    }
+
+    @Test
+    void scanningShouldNotRegisterPrefixesInSharedRegistry() {
+        var size = PrefixRegistry.shared().size();
+        var text = "unknown_scanned_" + SOME_SUFFIX + " unknown_scanned_" + SOME_SUFFIX;
+        var found = new ArrayList<String>();
+        TypeIdScanner.create().scan(text, (prefix, msb, lsb) -> found.add(prefix));
+
+        assertThat(PrefixRegistry.shared().size()).isEqualTo(size);
+        assertThat(PrefixRegistry.shared().ordinal("unknown_scanned")).isNegative();
+        assertThat(found).containsExactly("unknown_scanned", "unknown_scanned");
+        assertThat(found.get(1)).isSameAs(found.get(0));
+    }
+
+    @Test
+    void typeIdsShouldBeFoundAcrossChunkBoundaries() throws IOException {
+        var text = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            text.append(TypeId.generate(i % 3 == 0 ? "" : "p".repeat(1 + i % 63))).append(i % 2 == 0 ? " " : ",\n");
+        }
+        text.append(TypeId.generate("last"));
+        var file = dir.resolve("ids.txt");
+        Files.writeString(file, text);
+
+        var expected = new ArrayList<Long>();
+        var scanner = TypeIdScanner.create();
+        scanner.scanOffsets(text, (offset, length) -> expected.add(offset));
+        assertThat(expected).hasSize(101);
+
+        try (var channel = FileChannel.open(file)) {
+            for (int chunkSize : new int[]{1, 2, 25, 26, 27, 89, 90, 91, 1000, TypeIdScanner.DEFAULT_CHUNK_SIZE}) {
+                for (boolean parallel : new boolean[]{false, true}) {
+                    var offsets = Collections.synchronizedList(new ArrayList<Long>());
+                    var count = scanner.scan(channel, parallel, chunkSize, null, (offset, length) -> offsets.add(offset));
+                    assertThat(count).isEqualTo(101);
+                    offsets.sort(null);
+                    assertThat(offsets).isEqualTo(expected);
+                }
+            }
+            var found = Collections.synchronizedList(new ArrayList<String>());
+            assertThat(scanner.scan(channel, true, (prefix, msb, lsb) -> found.add(prefix))).isEqualTo(101);
+            assertThat(found).contains("last");
+        }
+    }
+
+    @Test
+    void overlongTokensShouldNotBeReported() throws IOException {
+        // a 64 character prefix makes the token one character longer than any TypeID
+        var text = "x " + "p".repeat(64) + "_" + SOME_SUFFIX + " y";
+        var file = dir.resolve("long.txt");
+        Files.writeString(file, text);
+
+        assertThat(TypeIdScanner.create().scanOffsets(text, (offset, length) -> {})).isZero();
+        try (var channel = FileChannel.open(file)) {
+            for (int chunkSize = 1; chunkSize <= text.length(); chunkSize++) {
+                assertThat(TypeIdScanner.create().scan(channel, false, chunkSize, null, (offset, length) -> {})).isZero();
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package de.fxlae.typeid.lib;
+
+import de.fxlae.typeid.lib.UuidV7Generator.Monotonicity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UuidV7GeneratorTest {
+
+    static final long SOME_MILLIS = 1_700_000_000_000L;
+
+    @Test
+    void generateShouldReturnUuidV7WithCurrentTimestamp() {
+        var before = System.currentTimeMillis();
+        var uuid = new UuidV7Generator().generate();
+        var after = System.currentTimeMillis();
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(uuid.getMostSignificantBits() >>> 16).isBetween(before, after);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Monotonicity.class)
+    void generateShouldBeStrictlyIncreasingWithinTheSameMillisecond(Monotonicity monotonicity) {
+        var generator = new UuidV7Generator(() -> SOME_MILLIS, monotonicity);
+        var previous = generator.generate();
+        for (int i = 0; i < 10_000; i++) {
+            var next = generator.generate();
+            assertThat(compareUnsigned(previous, next)).isNegative();
+            previous = next;
+        }
+    }
+
+    @Test
+    void counterOverflowShouldSpillIntoTimestamp() {
+        var generator = new UuidV7Generator(() -> SOME_MILLIS, Monotonicity.COUNTER);
+        UUID last = null;
+        // at most 4096 UUIDs fit into one millisecond
+        for (int i = 0; i < 4097; i++) {
+            last = generator.generate();
+        }
+        assertThat(last.getMostSignificantBits() >>> 16).isEqualTo(SOME_MILLIS + 1);
+        assertThat(last.version()).isEqualTo(7);
+    }
+
+    @Test
+    void randomIncrementShouldAdvanceRandAByOneToFour() {
+        var generator = new UuidV7Generator(() -> SOME_MILLIS, Monotonicity.RANDOM_INCREMENT);
+        assertThat(generator.monotonicity()).isEqualTo(Monotonicity.RANDOM_INCREMENT);
+        var previous = generator.generate().getMostSignificantBits();
+        var increments = new HashSet<Long>();
+        // at least 512 UUIDs fit into one millisecond
+        for (int i = 0; i < 511; i++) {
+            var next = generator.generate().getMostSignificantBits();
+            assertThat(next >>> 16).isEqualTo(SOME_MILLIS);
+            increments.add((next & 0xFFF) - (previous & 0xFFF));
+            previous = next;
+        }
+        assertThat(increments).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void generateShouldStayMonotonicWhenClockMovesBackwards() {
+        var clock = new AtomicLong(SOME_MILLIS);
+        var generator = new UuidV7Generator(clock::get, Monotonicity.COUNTER);
+        var first = generator.generate();
+        clock.set(SOME_MILLIS - 1000);
+        var second = generator.generate();
+        assertThat(compareUnsigned(first, second)).isNegative();
+        assertThat(second.getMostSignificantBits() >>> 16).isEqualTo(SOME_MILLIS);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Monotonicity.class)
+    void generateIntoShouldFillStrictlyIncreasingUuids(Monotonicity monotonicity) {
+        var generator = new UuidV7Generator(() -> SOME_MILLIS, monotonicity);
+        var msbs = new long[10_002];
+        var lsbs = new long[10_002];
+        generator.generateInto(msbs, lsbs, 1, 10_000);
+        assertThat(msbs[0]).isEqualTo(0L);
+        assertThat(msbs[10_001]).isEqualTo(0L);
+        for (int i = 1; i <= 10_000; i++) {
+            var uuid = new UUID(msbs[i], lsbs[i]);
+            assertThat(uuid.version()).isEqualTo(7);
+            assertThat(uuid.variant()).isEqualTo(2);
+            if (i > 1) {
+                assertThat(compareUnsigned(new UUID(msbs[i - 1], lsbs[i - 1]), uuid)).isNegative();
+            }
+        }
+        // the batch continues where the previous one stopped
+        assertThat(compareUnsigned(new UUID(msbs[10_000], lsbs[10_000]), generator.generate())).isNegative();
+    }
+
+    @Test
+    void generateIntoShouldCheckBounds() {
+        var generator = new UuidV7Generator();
+        assertThatThrownBy(() -> generator.generateInto(new long[2], new long[3], 0, 3))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> generator.generateInto(new long[2], new long[2], 0, -1))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Monotonicity.class)
+    void concurrentGenerationShouldBeUniqueAndMonotonicPerThread(Monotonicity monotonicity) throws Exception {
+        var generator = new UuidV7Generator(monotonicity);
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<UUID>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    List<UUID> uuids = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        uuids.add(generator.generate());
+                    }
+                    return uuids;
+                }));
+            }
+            var all = new HashSet<UUID>();
+            for (var future : futures) {
+                var uuids = future.get();
+                for (int i = 1; i < uuids.size(); i++) {
+                    assertThat(compareUnsigned(uuids.get(i - 1), uuids.get(i))).isNegative();
+                }
+                all.addAll(uuids);
+            }
+            assertThat(all).hasSize(threads * perThread);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void nodeIdShouldBeStoredInLeftmostBitsOfRandB() {
+        var generator = new UuidV7Generator(Monotonicity.COUNTER, 10, 0x2A5);
+        assertThat(generator.nodeBits()).isEqualTo(10);
+        assertThat(generator.nodeId()).isEqualTo(0x2A5);
+        var msbs = new long[100];
+        var lsbs = new long[100];
+        generator.generateInto(msbs, lsbs, 0, 100);
+        for (long lsb : lsbs) {
+            assertThat(UuidV7Generator.nodeId(lsb, 10)).isEqualTo(0x2A5);
+            assertThat(lsb >>> 62).isEqualTo(2);
+        }
+        var uuid = generator.generate();
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(UuidV7Generator.nodeId(uuid.getLeastSignificantBits(), 10)).isEqualTo(0x2A5);
+        // the remaining bits of rand_b stay random
+        assertThat(uuid.getLeastSignificantBits() & 0x000F_FFFF_FFFF_FFFFL).isNotEqualTo(lsbs[0] & 0x000F_FFFF_FFFF_FFFFL);
+    }
+
+    @Test
+    void nodeIdsShouldUseAllReservedBits() {
+        var generator = new UuidV7Generator(Monotonicity.COUNTER, UuidV7Generator.MAX_NODE_BITS, 0xFFFF_FFFFL);
+        assertThat(UuidV7Generator.nodeId(generator.generate().getLeastSignificantBits(), 32)).isEqualTo(0xFFFF_FFFFL);
+        var single = new UuidV7Generator(Monotonicity.RANDOM_INCREMENT, 1, 0);
+        for (int i = 0; i < 100; i++) {
+            assertThat(UuidV7Generator.nodeId(single.generate().getLeastSignificantBits(), 1)).isZero();
+        }
+        assertThat(new UuidV7Generator().nodeBits()).isZero();
+    }
+
+    @Test
+    void invalidNodeArgumentsShouldFail() {
+        assertThatThrownBy(() -> new UuidV7Generator(Monotonicity.COUNTER, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new UuidV7Generator(Monotonicity.COUNTER, 33, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new UuidV7Generator(Monotonicity.COUNTER, 4, 16)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new UuidV7Generator(Monotonicity.COUNTER, 4, -1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> UuidV7Generator.nodeId(0, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    static int compareUnsigned(UUID a, UUID b) {
+        int msb = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return msb != 0 ? msb : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,101 @@
+package de.fxlae.typeid.lib;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+import static jdk.incubator.vector.VectorOperators.EQ;
+import static jdk.incubator.vector.VectorOperators.GE;
+import static jdk.incubator.vector.VectorOperators.GT;
+import static jdk.incubator.vector.VectorOperators.LE;
+import static jdk.incubator.vector.VectorOperators.LSHL;
+import static jdk.incubator.vector.VectorOperators.LSHR;
+
+// validates and decodes the suffix with 256 bit vectors, see SuffixDecoder. it's compiled separately
+// and shipped in the multi-release layer of the jar, it is instantiated reflectively and only if
+// jdk.incubator.vector is resolved.
+final class VectorSuffixDecoder implements SuffixDecoder {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_256;
+    private static final int SUFFIX_LENGTH = 26;
+    private static final int PADDING_LENGTH = SPECIES.length() - SUFFIX_LENGTH;
+    // the lanes that don't belong to the suffix, if it's at the end or the start of the vector
+    private static final VectorMask<Byte> LEADING_PADDING = SPECIES.indexInRange(0, PADDING_LENGTH);
+    private static final VectorMask<Byte> TRAILING_PADDING = SPECIES.indexInRange(0, SUFFIX_LENGTH).not();
+
+    VectorSuffixDecoder() {
+        // without hardware support, the vector operations would fall back to (slow) java code
+        if (ByteVector.SPECIES_PREFERRED.vectorBitSize() < SPECIES.vectorBitSize()) {
+            throw new UnsupportedOperationException("256 bit vectors are not supported on this platform");
+        }
+    }
+
+    @Override
+    public boolean decode(final byte[] src, final int offset, final long[] out) {
+
+        final byte first = src[offset];
+        if (first < '0' || first > '7') {
+            return false;
+        }
+
+        // masked loads are not intrinsified on all platforms, so 32 bytes are loaded that end or start with
+        // the suffix, and the other lanes are masked out. inputs that are too short are decoded by the
+        // scalar decoder.
+        final boolean leading = offset >= PADDING_LENGTH;
+        if (!leading && src.length - offset < SPECIES.length()) {
+            return SCALAR.decode(src, offset, out);
+        }
+        final VectorMask<Byte> padding = leading ? LEADING_PADDING : TRAILING_PADDING;
+        final ByteVector chars = ByteVector.fromArray(SPECIES, src, leading ? offset - PADDING_LENGTH : offset);
+
+        // as bytes are signed, non-ASCII characters are negative and fail the range checks
+        final VectorMask<Byte> digits = chars.compare(GE, '0').and(chars.compare(LE, '9'));
+        final VectorMask<Byte> letters = chars.compare(GE, 'a').and(chars.compare(LE, 'z'))
+                .andNot(chars.compare(EQ, 'i'))
+                .andNot(chars.compare(EQ, 'l'))
+                .andNot(chars.compare(EQ, 'o'))
+                .andNot(chars.compare(EQ, 'u'));
+        if (!digits.or(letters).or(padding).allTrue()) {
+            return false;
+        }
+
+        // '0'..'9' -> 0..9, 'a'..'z' -> 10..31, skipping the excluded letters. set mask lanes are -1 as vector.
+        final ByteVector letterValues = chars.sub((byte) ('a' - 10))
+                .add(chars.compare(GT, 'i').toVector())
+                .add(chars.compare(GT, 'l').toVector())
+                .add(chars.compare(GT, 'o').toVector())
+                .add(chars.compare(GT, 'u').toVector());
+        final ByteVector values = chars.sub((byte) '0')
+                .blend(letterValues, letters)
+                .blend((byte) 0, padding);
+
+        // the 5 bit values are concatenated pairwise, doubling the lane size in each step. lanes are
+        // reinterpreted in little-endian order, so the first value of each pair is in the lower half.
+        final ShortVector pairs = values.reinterpretAsShorts();
+        final IntVector quads = pairs.and((short) 0xFF).lanewise(LSHL, 5)
+                .or(pairs.lanewise(LSHR, 8))
+                .reinterpretAsInts();
+        final LongVector octets = quads.and(0xFFFF).lanewise(LSHL, 10)
+                .or(quads.lanewise(LSHR, 16))
+                .reinterpretAsLongs();
+        final LongVector blocks = octets.and(0xFFFFFFFFL).lanewise(LSHL, 20)
+                .or(octets.lanewise(LSHR, 32));
+
+        // four blocks of 40 bits each (8 characters), including the 30 zero bits of the padding
+        final long b0 = blocks.lane(0);
+        final long b1 = blocks.lane(1);
+        final long b2 = blocks.lane(2);
+        final long b3 = blocks.lane(3);
+        if (leading) {
+            out[0] = (b0 << 56) | (b1 << 16) | (b2 >>> 24);
+            out[1] = (b2 << 40) | b3;
+        } else {
+            out[0] = (b0 << 26) | (b1 >>> 14);
+            out[1] = (b1 << 50) | (b2 << 10) | (b3 >>> 30);
+        }
+        return true;
+    }
+}